@@ -0,0 +1,381 @@
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.stage.Stage;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * AssetManager decodes every image asset once and shares it with every screen.
+ *
+ * Screens acquire an image by its path under Assets, e.g.
+ * "Assets/Buttons/closebtn.png", and get the same Image object as every other
+ * screen using it. Each acquire counts a reference, and a screen that is done
+ * with an image, such as a closed popup, releases it. Screens acquire through
+ * a Scope, which releases their images when their scene is replaced or their
+ * stage closes. An image nobody holds is kept in case it is needed again, the
+ * least recently released ones are dropped once they take up more than
+ * MAX_UNUSED_PIXELS.
+ *
+ * Decoding happens outside the lock, so images can be acquired or preloaded
+ * from several threads at once, and a thread asking for an image another
+ * thread is already decoding waits for that decode instead of starting its
+ * own.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class AssetManager {
+    private static final long MAX_UNUSED_PIXELS = 32L * 1024 * 1024; // About 128 MB of decoded images nobody holds
+
+    private static AssetManager instance;
+
+    private final Map<String, Asset> assets = new HashMap<>();
+    private final LinkedHashMap<String, Asset> unused = new LinkedHashMap<>(); // Released images, oldest first
+    private long unusedPixels = 0;
+
+    // Load statistics
+    private long hits = 0;
+    private long decodes = 0;
+    private long decodeNanos = 0;
+    private long evictions = 0;
+
+    /**
+     * One decoded image and the number of screens holding it
+     */
+    private static final class Asset {
+        final CompletableFuture<Image> image = new CompletableFuture<>();
+        int references = 0;
+        long pixels = 0;
+    }
+
+    /**
+     * A snapshot of the load statistics
+     */
+    public static final class Stats {
+        private final long hits, decodes, decodeNanos, evictions;
+        private final int cached, unused;
+
+        private Stats(long hits, long decodes, long decodeNanos, long evictions, int cached, int unused) {
+            this.hits = hits;
+            this.decodes = decodes;
+            this.decodeNanos = decodeNanos;
+            this.evictions = evictions;
+            this.cached = cached;
+            this.unused = unused;
+        }
+
+        /**
+         * @return The number of acquires served without decoding
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return The number of images decoded
+         */
+        public long getDecodes() {
+            return decodes;
+        }
+
+        /**
+         * @return The total time spent decoding, in milliseconds
+         */
+        public double getDecodeMillis() {
+            return decodeNanos / 1e6;
+        }
+
+        /**
+         * @return The number of unused images dropped from the cache
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return The number of images in the cache
+         */
+        public int getCached() {
+            return cached;
+        }
+
+        /**
+         * @return The number of cached images nobody holds
+         */
+        public int getUnused() {
+            return unused;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Assets: %d cached (%d unused), %d decodes in %.1f ms, %d hits, %d evictions", cached,
+                    unused, decodes, getDecodeMillis(), hits, evictions);
+        }
+    }
+
+    /**
+     * The images one screen holds, so they can be released together
+     *
+     * A screen acquires its images through its scope, and the scope releases
+     * them when the screen's scene leaves the stage or the stage closes, and
+     * takes them again if the scene is shown again, e.g. the settings scene
+     * after a tutorial. A popup on a scene releases its own images when it is
+     * closed.
+     *
+     * Only used from the FX thread.
+     */
+    public final class Scope {
+        private final List<String> held = new ArrayList<>(); // One entry per reference, normalized
+        private boolean holding = true;
+
+        private Scope() {
+        }
+
+        /**
+         * Get an image and hold it in this scope
+         *
+         * @param path The path of the image, e.g. "Assets/Buttons/closebtn.png"
+         * @return The shared image
+         * @throws IllegalArgumentException if there is no such image
+         */
+        public Image acquire(String path) {
+            Image image = AssetManager.this.acquire(path);
+            held.add(normalize(path));
+            if (!holding) {
+                AssetManager.this.release(path); // Taken again with the rest when the scene is shown
+            }
+            return image;
+        }
+
+        /**
+         * Drop a reference taken with acquire before the scope ends, e.g. when
+         * a popup closes
+         *
+         * @param path The path the image was acquired with
+         */
+        public void release(String path) {
+            if (!held.remove(normalize(path))) {
+                System.err.println("Asset released more often than acquired: " + normalize(path));
+                return;
+            }
+            if (holding) {
+                AssetManager.this.release(path);
+            }
+        }
+
+        /**
+         * Hold the images only while a scene is shown on a stage
+         *
+         * @param stage The stage the scene is shown on
+         * @param scene The scene built with this scope's images
+         */
+        public void holdWhileShown(Stage stage, Scene scene) {
+            InvalidationListener listener = observable -> setHolding(stage.getScene() == scene && stage.isShowing());
+            // The stage only keeps a weak reference, the scene keeps the listener as long as it lives
+            scene.getProperties().put(Scope.class, listener);
+            stage.sceneProperty().addListener(new WeakInvalidationListener(listener));
+            stage.showingProperty().addListener(new WeakInvalidationListener(listener));
+        }
+
+        private void setHolding(boolean hold) {
+            if (hold == holding) {
+                return;
+            }
+            holding = hold;
+            for (String path : held) {
+                if (hold) {
+                    AssetManager.this.acquire(path);
+                } else {
+                    AssetManager.this.release(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the shared asset manager, creating it on first use
+     *
+     * @return The shared asset manager
+     */
+    public static synchronized AssetManager getInstance() {
+        if (instance == null) {
+            instance = new AssetManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Get an image, decoding it only if it is not cached yet, and count a
+     * reference to it
+     *
+     * @param path The path of the image, e.g. "Assets/Buttons/closebtn.png"
+     * @return The shared image
+     * @throws IllegalArgumentException if there is no such image
+     */
+    public Image acquire(String path) {
+        String key = normalize(path);
+        Asset asset;
+        boolean decode = false;
+        synchronized (this) {
+            asset = assets.get(key);
+            if (asset == null) {
+                asset = new Asset();
+                assets.put(key, asset);
+                decode = true;
+            } else {
+                hits++;
+                if (asset.references == 0 && unused.remove(key) != null) {
+                    unusedPixels -= asset.pixels;
+                }
+            }
+            asset.references++;
+        }
+
+        if (decode) {
+            decode(key, asset, false);
+        }
+        try {
+            return asset.image.join();
+        } catch (CompletionException e) {
+            // Another thread's decode failed, fail the same way it did
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Decode an image ahead of time without taking a reference, so a later
+     * acquire finds it ready. The image is kept like a released one until a
+     * screen acquires it.
+     *
+     * @param path The path of the image, e.g. "Assets/Buttons/closebtn.png"
+     * @throws IllegalArgumentException if there is no such image
+     */
+    public void preload(String path) {
+        String key = normalize(path);
+        Asset asset;
+        synchronized (this) {
+            if (assets.containsKey(key)) {
+                return; // Already decoded or being decoded
+            }
+            asset = new Asset();
+            assets.put(key, asset);
+        }
+        decode(key, asset, true);
+    }
+
+    /**
+     * Drop a reference to an image taken with acquire
+     *
+     * @param path The path the image was acquired with
+     */
+    public synchronized void release(String path) {
+        String key = normalize(path);
+        Asset asset = assets.get(key);
+        if (asset == null || asset.references == 0) {
+            System.err.println("Asset released more often than acquired: " + key);
+            return;
+        }
+        asset.references--;
+        if (asset.references == 0) {
+            unused.put(key, asset);
+            unusedPixels += asset.pixels;
+            trimUnused();
+        }
+    }
+
+    /**
+     * Start a scope for the images of one screen
+     *
+     * @return A new scope holding no images
+     */
+    public Scope newScope() {
+        return new Scope();
+    }
+
+    /**
+     * Drop every cached image nobody holds
+     */
+    public synchronized void clearUnused() {
+        for (String key : unused.keySet()) {
+            assets.remove(key);
+            evictions++;
+        }
+        unused.clear();
+        unusedPixels = 0;
+    }
+
+    /**
+     * @return A snapshot of the load statistics
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits, decodes, decodeNanos, evictions, assets.size(), unused.size());
+    }
+
+    /**
+     * Decode an image and publish it to every thread waiting for it
+     *
+     * @param preload true if nobody asked for the image yet, it then goes to
+     *                the unused images unless it was acquired meanwhile
+     */
+    private void decode(String key, Asset asset, boolean preload) {
+        long start = System.nanoTime();
+        try {
+            URL url = AssetManager.class.getResource("/" + key);
+            if (url == null) {
+                throw new IllegalArgumentException("Asset not found: " + key);
+            }
+            Image image = new Image(url.toExternalForm());
+            synchronized (this) {
+                decodes++;
+                decodeNanos += System.nanoTime() - start;
+                asset.pixels = (long) image.getWidth() * (long) image.getHeight();
+                if (preload && asset.references == 0) {
+                    unused.put(key, asset);
+                    unusedPixels += asset.pixels;
+                    trimUnused();
+                }
+            }
+            asset.image.complete(image);
+        } catch (RuntimeException e) {
+            // Forget the failed asset so a later acquire tries again
+            synchronized (this) {
+                assets.remove(key);
+            }
+            asset.image.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drop the least recently released images until the unused ones fit in
+     * the budget
+     */
+    private void trimUnused() {
+        Iterator<Map.Entry<String, Asset>> oldest = unused.entrySet().iterator();
+        while (unusedPixels > MAX_UNUSED_PIXELS && oldest.hasNext()) {
+            Map.Entry<String, Asset> entry = oldest.next();
+            oldest.remove();
+            assets.remove(entry.getKey());
+            unusedPixels -= entry.getValue().pixels;
+            evictions++;
+        }
+    }
+
+    /**
+     * Paths are used with and without a leading slash, they name the same
+     * asset
+     */
+    private static String normalize(String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+}
@@ -0,0 +1,191 @@
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AssetPreloader decodes the images of the screens a player is likely to open
+ * next on a small pool of background threads, while the main menu is showing.
+ *
+ * The images go into the AssetManager cache, the pet sprites are decoded
+ * into SpriteAnimations and the IconAtlas is loaded or built, so when the
+ * choose pet, load game or gameplay screen asks for them they are already
+ * decoded and the FX thread does not stall on the first visit. The gameplay
+ * images come first, then the screens on the way to it.
+ * Progress goes from 0 to 1 and is updated on the FX thread, so the main menu
+ * can bind a progress bar to it.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class AssetPreloader {
+    private static final String[] SPRITE_ACTIONS = { "eat", "play", "bath", "sleep" };
+    private static final String[] GAMEPLAY_BUTTONS = { "homebtn", "savebtn", "statsbtn", "tutorialbtn",
+            "settingsbtn", "deathbtn", "shopbtn", "closebtn" };
+    private static final String[] CHOOSE_PET_ASSETS = { "Assets/Buttons/DefaultButton.png",
+            "Assets/Buttons/SelectButton.png", "Assets/Buttons/NextButton.png", "Assets/Buttons/ConfirmButton.png",
+            "Assets/PetIcons/PhoenixIcon.gif", "Assets/PetIcons/PegasusIcon.gif", "Assets/PetIcons/DragonIcon.gif",
+            "Assets/FoodIcons/apple.png", "Assets/FoodIcons/broc.png", "Assets/FoodIcons/hotChilli.png",
+            "Assets/FoodIcons/goat.png", "Assets/FoodIcons/PinkHerb.png", "Assets/FoodIcons/goldenApple.png",
+            "Assets/FoodIcons/fish.png", "Assets/Stats/DifficultyStats.png" };
+    private static final String[] LOAD_GAME_ASSETS = { "Assets/Background/dark_sky.png",
+            "Assets/Sprites/default.png" };
+
+    private static AssetPreloader instance;
+
+    private final AssetManager assets;
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(0); // Only set on the FX thread
+    private final AtomicInteger loaded = new AtomicInteger();
+    private ExecutorService executor;
+    private int total = 0;
+
+    /**
+     * Get the shared preloader, creating it on first use
+     *
+     * @return The shared preloader
+     */
+    public static synchronized AssetPreloader getInstance() {
+        if (instance == null) {
+            instance = new AssetPreloader(AssetManager.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * @param assets The asset manager to decode into
+     */
+    public AssetPreloader(AssetManager assets) {
+        this.assets = assets;
+    }
+
+    /**
+     * Start decoding the assets of the next likely screens in the background,
+     * only the first call does anything
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        List<String> sprites = spriteAnimations();
+        List<String> paths = nextScreenAssets();
+
+        // Leave a core for the FX thread
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "asset-preloader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true); // Never keeps the game from exiting
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        total = sprites.size() + paths.size() + 1; // The icon atlas counts as one asset
+        executor.execute(this::loadIconAtlas);
+        for (String sprite : sprites) {
+            executor.execute(() -> preloadAnimation(sprite));
+        }
+        for (String path : paths) {
+            executor.execute(() -> preload(path));
+        }
+        executor.shutdown(); // The threads end once the queue is empty
+    }
+
+    /**
+     * @return The share of the assets decoded so far, 0-1, updated on the FX
+     *         thread
+     */
+    public ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    /**
+     * @return true once every asset has been decoded or has failed
+     */
+    public synchronized boolean isDone() {
+        return executor != null && loaded.get() == total;
+    }
+
+    private void preload(String path) {
+        try {
+            assets.preload(path);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to preload " + path + ": " + e.getMessage());
+        }
+        countLoaded();
+    }
+
+    private void preloadAnimation(String path) {
+        try {
+            SpriteAnimation.get(path);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Failed to preload " + path + ": " + e.getMessage());
+        }
+        countLoaded();
+    }
+
+    /**
+     * Load or build the inventory and shop icon sheet
+     */
+    private void loadIconAtlas() {
+        IconAtlas.getInstance();
+        countLoaded();
+    }
+
+    private void countLoaded() {
+        double done = (double) loaded.incrementAndGet() / total;
+        Platform.runLater(() -> progress.set(Math.max(progress.get(), done)));
+    }
+
+    /**
+     * The idle and action sprites of every species, decoded into
+     * SpriteAnimations
+     *
+     * @return The sprite paths
+     */
+    static List<String> spriteAnimations() {
+        List<String> paths = new ArrayList<>();
+        for (int id = 0; id < SpeciesRegistry.getSpeciesCount(); id++) {
+            Species species = SpeciesRegistry.get(id);
+            paths.add(species.getSprite("idle"));
+            for (String action : SPRITE_ACTIONS) {
+                paths.add(species.getSprite(action));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * The images of the gameplay screen, then those of the choose pet and load
+     * game screens
+     *
+     * @return The asset paths, in the order to decode them
+     */
+    static List<String> nextScreenAssets() {
+        List<String> paths = new ArrayList<>();
+
+        // Gameplay: the buttons and stats, the pet sprites are SpriteAnimations and the icons are in the IconAtlas
+        paths.add("Assets/Images/box.png");
+        for (String button : GAMEPLAY_BUTTONS) {
+            paths.add("Assets/Buttons/" + button + ".png");
+            paths.add("Assets/Buttons/" + button + "_pressed.png");
+        }
+        for (int value = 0; value <= 10; value++) {
+            paths.add("Assets/Stats/stats" + value + ".png");
+        }
+        paths.add("Assets/Cursors/cursor.png");
+        paths.add("Assets/Cursors/cursor_hover.png");
+
+        // The screens on the way to gameplay
+        for (String path : CHOOSE_PET_ASSETS) {
+            paths.add(path);
+        }
+        for (String path : LOAD_GAME_ASSETS) {
+            paths.add(path);
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AutosaveService does all save I/O of a game session on one background
+ * thread, so the JavaFX thread never waits on the disk.
+ * 
+ * The game thread only changes the cached save in the SaveRepository and
+ * hands the service a journal record holding just the fields that changed.
+ * Bursts of changes (item clicks, level ups, stat decay) are coalesced into at
+ * most one journal append per autosave interval, so a frequent save costs a
+ * few bytes instead of the whole save. Full snapshots are only written by the
+ * save button, the journal compactor and the end of the session.
+ * 
+ * The interval is read from the animora.autosave.interval system property, in
+ * seconds, and defaults to 5 seconds.
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class AutosaveService {
+    public static final String INTERVAL_PROPERTY = "animora.autosave.interval";
+    private static final long DEFAULT_INTERVAL = 5; // Seconds
+
+    private final SaveRepository saveRepository;
+    private final long intervalSeconds;
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> pendingSave; // The journal write already scheduled, if any
+    private Map<Integer, List<SaveJournal.Entry>> pendingRecords = new LinkedHashMap<>();
+
+    /**
+     * Create an autosave service with the interval from the system property
+     * 
+     * @param saveRepository The repository holding the cached saves
+     */
+    public AutosaveService(SaveRepository saveRepository) {
+        this(saveRepository, Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL));
+    }
+
+    /**
+     * @param saveRepository  The repository holding the cached saves
+     * @param intervalSeconds Shortest time between two journal writes
+     */
+    public AutosaveService(SaveRepository saveRepository, long intervalSeconds) {
+        this.saveRepository = saveRepository;
+        this.intervalSeconds = Math.max(0, intervalSeconds);
+    }
+
+    /**
+     * Record a game action: apply it to the cached save right away and queue
+     * its journal record for the next autosave
+     * 
+     * @param saveId The save the action belongs to
+     * @param entry  The journal record of the action
+     */
+    public synchronized void record(int saveId, SaveJournal.Entry entry) {
+        saveRepository.applyAction(saveId, entry);
+        pendingRecords.computeIfAbsent(saveId, id -> new ArrayList<>()).add(entry);
+        if (pendingSave == null) {
+            pendingSave = getExecutor().schedule(this::writePendingRecords, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Write the queued records and a snapshot of every changed save in the
+     * background without waiting for the autosave interval, used by the save
+     * button
+     */
+    public synchronized void saveNow() {
+        ScheduledExecutorService executor = getExecutor();
+        executor.execute(this::writePendingRecords);
+        executor.execute(saveRepository::flushAll);
+    }
+
+    /**
+     * Write every change one last time and stop the background thread
+     * 
+     * Queued work still runs after this returns. The thread is not a daemon,
+     * so the program does not exit before the last write is done.
+     */
+    public synchronized void close() {
+        if (executor == null) {
+            return;
+        }
+        if (pendingSave != null) {
+            // The final write below covers it
+            pendingSave.cancel(false);
+            pendingSave = null;
+        }
+        executor.execute(this::writePendingRecords);
+        executor.execute(saveRepository::endSession);
+        executor.shutdown();
+        executor = null;
+    }
+
+    /**
+     * Append every queued record to its save's journal, one write per save
+     */
+    private void writePendingRecords() {
+        Map<Integer, List<SaveJournal.Entry>> records;
+        synchronized (this) {
+            records = pendingRecords;
+            pendingRecords = new LinkedHashMap<>();
+            pendingSave = null;
+        }
+        for (Map.Entry<Integer, List<SaveJournal.Entry>> save : records.entrySet()) {
+            saveRepository.appendToJournal(save.getKey(), save.getValue());
+        }
+    }
+
+    private ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "autosave"));
+        }
+        return executor;
+    }
+}
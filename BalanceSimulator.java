@@ -0,0 +1,264 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * BalanceSimulator plays many simulated players against every species to see
+ * how hard each one is to keep alive with the decay rates and item effects in
+ * the species descriptor.
+ *
+ * Every simulated player follows a care strategy drawn from its own seed: how
+ * often they check on the pet, how many items they use per visit, whether they
+ * pick the lowest stat or a random one, and how often they give a gift. The
+ * players of a species are split into chunks that run as fork/join tasks on
+ * every core, each chunk stepping a PetPopulation one second at a time. The
+ * runs only depend on the seed, so the same seed always gives the same report.
+ *
+ * Run it with: java BalanceSimulator [players per species] [hours] [seed]
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class BalanceSimulator {
+    private static final int CHUNK_SIZE = 2048; // Players simulated by one task
+    private static final String[] CARE_ITEMS = { "food1", "fun1", "sleep1", "bath1" }; // Item raising each stat
+    private static final int[] CARE_STATS = { Pet.HUNGER, Pet.FUN, Pet.SLEEP, Pet.GROOMING };
+
+    private final int playersPerSpecies;
+    private final long horizonSeconds;
+    private final long seed;
+
+    /**
+     * Survival times and final levels of the players of one species
+     */
+    public static final class Result {
+        private final Species species;
+        private final long[] survivalSeconds; // Sorted, the horizon for pets still alive at the end
+        private final int[] levels; // Sorted
+        private final int survivors;
+
+        private Result(Species species, long[] survivalSeconds, int[] levels, int survivors) {
+            this.species = species;
+            this.survivalSeconds = survivalSeconds;
+            this.levels = levels;
+            this.survivors = survivors;
+        }
+
+        private static Result merge(Result a, Result b) {
+            long[] survival = Arrays.copyOf(a.survivalSeconds, a.survivalSeconds.length + b.survivalSeconds.length);
+            System.arraycopy(b.survivalSeconds, 0, survival, a.survivalSeconds.length, b.survivalSeconds.length);
+            int[] levels = Arrays.copyOf(a.levels, a.levels.length + b.levels.length);
+            System.arraycopy(b.levels, 0, levels, a.levels.length, b.levels.length);
+            return new Result(a.species, survival, levels, a.survivors + b.survivors);
+        }
+
+        private Result sorted() {
+            Arrays.sort(survivalSeconds);
+            Arrays.sort(levels);
+            return this;
+        }
+
+        public Species getSpecies() {
+            return species;
+        }
+
+        public int getPlayers() {
+            return levels.length;
+        }
+
+        /**
+         * @return The share of players whose pet was alive at the end, 0-1
+         */
+        public double getSurvivalRate() {
+            return levels.length == 0 ? 0 : (double) survivors / levels.length;
+        }
+
+        /**
+         * @param percentile 0-100
+         * @return The survival time in seconds at the percentile
+         */
+        public long getSurvivalPercentile(double percentile) {
+            return survivalSeconds[index(percentile, survivalSeconds.length)];
+        }
+
+        /**
+         * @param percentile 0-100
+         * @return The final level at the percentile
+         */
+        public int getLevelPercentile(double percentile) {
+            return levels[index(percentile, levels.length)];
+        }
+
+        private static int index(double percentile, int length) {
+            return (int) Math.min(length - 1, Math.max(0, Math.round(percentile / 100 * (length - 1))));
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%-10s players %d, alive at end %.1f%%, survival p10/p50/p90 %d/%d/%d s, level p10/p50/p90 %d/%d/%d",
+                    species.getType(), getPlayers(), getSurvivalRate() * 100,
+                    getSurvivalPercentile(10), getSurvivalPercentile(50), getSurvivalPercentile(90),
+                    getLevelPercentile(10), getLevelPercentile(50), getLevelPercentile(90));
+        }
+    }
+
+    /**
+     * @param playersPerSpecies The number of simulated players for each species
+     * @param horizonSeconds    How long each player plays
+     * @param seed              The seed of the care strategies
+     */
+    public BalanceSimulator(int playersPerSpecies, long horizonSeconds, long seed) {
+        this.playersPerSpecies = playersPerSpecies;
+        this.horizonSeconds = horizonSeconds;
+        this.seed = seed;
+    }
+
+    /**
+     * Simulate every species in the species registry
+     *
+     * @param pool The pool to run the tasks on
+     * @return One result per species, in registry order
+     */
+    public List<Result> run(ForkJoinPool pool) {
+        List<Result> results = new ArrayList<>();
+        for (int id = 0; id < SpeciesRegistry.getSpeciesCount(); id++) {
+            Species species = SpeciesRegistry.get(id);
+            results.add(pool.invoke(new SimulateTask(species, 0, playersPerSpecies, horizonSeconds, seed)).sorted());
+        }
+        return results;
+    }
+
+    /**
+     * Simulates a range of players of one species, splitting the range in half
+     * until it fits in one chunk
+     */
+    private static class SimulateTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final Species species;
+        private final int from, to;
+        private final long horizonSeconds;
+        private final long seed;
+
+        SimulateTask(Species species, int from, int to, long horizonSeconds, long seed) {
+            this.species = species;
+            this.from = from;
+            this.to = to;
+            this.horizonSeconds = horizonSeconds;
+            this.seed = seed;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return simulateChunk(species, from, to, horizonSeconds, seed);
+            }
+            int middle = (from + to) >>> 1;
+            SimulateTask left = new SimulateTask(species, from, middle, horizonSeconds, seed);
+            left.fork();
+            Result right = new SimulateTask(species, middle, to, horizonSeconds, seed).compute();
+            return Result.merge(left.join(), right);
+        }
+    }
+
+    /**
+     * Play a chunk of players of one species until the horizon
+     *
+     * @param species        The species
+     * @param from           The first player number
+     * @param to             The player number after the last
+     * @param horizonSeconds How long each player plays
+     * @param seed           The seed of the care strategies
+     * @return The results of the chunk
+     */
+    private static Result simulateChunk(Species species, int from, int to, long horizonSeconds, long seed) {
+        int count = to - from;
+        PetPopulation population = new PetPopulation(new Species[] { species }, count);
+
+        // The care strategy of each player, drawn from its own seed
+        int[] visitInterval = new int[count];
+        int[] actionsPerVisit = new int[count];
+        boolean[] attentive = new boolean[count];
+        double[] giftChance = new double[count];
+        SplittableRandom[] random = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) {
+            random[i] = new SplittableRandom(seed * 31 + species.getType().hashCode() * 1_000_003L + from + i);
+            visitInterval[i] = random[i].nextInt(10, 301);
+            actionsPerVisit[i] = random[i].nextInt(1, 4);
+            attentive[i] = random[i].nextBoolean();
+            giftChance[i] = random[i].nextDouble(0, 0.1);
+        }
+
+        ItemEffect[] careEffects = new ItemEffect[CARE_ITEMS.length];
+        for (int c = 0; c < CARE_ITEMS.length; c++) {
+            careEffects[c] = species.getItemEffect(ItemRegistry.getId(CARE_ITEMS[c]));
+        }
+        ItemEffect giftEffect = species.getItemEffect(ItemRegistry.getId("gift1"));
+
+        for (long second = 1; second <= horizonSeconds; second++) {
+            population.advance(1);
+            for (int i = 0; i < count; i++) {
+                if (second % visitInterval[i] != 0 || !population.isAlive(i)) {
+                    continue;
+                }
+                for (int action = 0; action < actionsPerVisit[i]; action++) {
+                    if (random[i].nextDouble() < giftChance[i]) {
+                        population.applyItem(i, giftEffect);
+                    } else {
+                        int c = attentive[i] ? lowestStat(population, i) : random[i].nextInt(CARE_STATS.length);
+                        population.applyItem(i, careEffects[c]);
+                    }
+                }
+            }
+        }
+
+        long[] survival = new long[count];
+        int[] levels = new int[count];
+        int survivors = 0;
+        for (int i = 0; i < count; i++) {
+            if (population.isAlive(i)) {
+                survival[i] = horizonSeconds;
+                survivors++;
+            } else {
+                survival[i] = population.getGameOverStep(i);
+            }
+            levels[i] = population.getLevel(i);
+        }
+        return new Result(species, survival, levels, survivors);
+    }
+
+    /**
+     * @return The index in CARE_STATS of the pet's lowest stat
+     */
+    private static int lowestStat(PetPopulation population, int pet) {
+        int lowest = 0;
+        for (int c = 1; c < CARE_STATS.length; c++) {
+            if (population.getStat(pet, CARE_STATS[c]) < population.getStat(pet, CARE_STATS[lowest])) {
+                lowest = c;
+            }
+        }
+        return lowest;
+    }
+
+    /**
+     * @param args Players per species, hours played and seed, all optional
+     */
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        double hours = args.length > 1 ? Double.parseDouble(args[1]) : 2;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        long start = System.nanoTime();
+        BalanceSimulator simulator = new BalanceSimulator(players, (long) (hours * 3600), seed);
+        for (Result result : simulator.run(ForkJoinPool.commonPool())) {
+            System.out.println(result);
+        }
+        System.out.printf("Simulated in %.1f s on %d threads%n", (System.nanoTime() - start) / 1e9,
+                ForkJoinPool.commonPool().getParallelism());
+    }
+}
@@ -0,0 +1,319 @@
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * BinarySaveCodec stores a save in a compact binary format.
+ * 
+ * Layout, all whole numbers are varints (zigzag for signed values) and all
+ * strings are a varint of length + 1 followed by UTF-8 bytes (0 for null):
+ * 
+ * - magic "AS" and format version (3 bytes)
+ * - save_id, username
+ * - flags byte: which of pet, game_progress and inventory follow
+ * - pet: name, type, then hunger, fun, sleep, grooming as one byte each
+ * - game_progress: level, last_played
+ * - inventory: item count, then per item the ItemRegistry catalog id + 1 and
+ *   the quantity, where 0 is followed by the item name for items not in the
+ *   catalog
+ * - everything else in the save as JSON text
+ * 
+ * Any part of a save that does not have the expected shape is kept in the
+ * trailing JSON text instead, so encoding never loses data. A catalog item is
+ * stored by its id, so it comes back under its lower-case catalog name, e.g.
+ * "Food3" comes back as "food3".
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class BinarySaveCodec implements SaveCodec {
+    private static final byte[] MAGIC = { 'A', 'S' };
+    private static final int VERSION = 1;
+
+    private static final int HAS_PET = 1;
+    private static final int HAS_PROGRESS = 2;
+    private static final int HAS_INVENTORY = 4;
+    private static final int MISSING_STAT = 0xFF;
+    private static final String[] STATS = { "hunger", "fun", "sleep", "grooming" };
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] encode(JSONObject save) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+
+        // Whatever is not written in binary below ends up in here
+        JSONObject rest = new JSONObject();
+        rest.putAll(save);
+
+        Object saveId = rest.remove("save_id");
+        if (!(saveId instanceof Number)) {
+            throw new IllegalArgumentException("Save object does not contain a numeric 'save_id'.");
+        }
+        writeSigned(out, ((Number) saveId).longValue());
+
+        Object username = save.get("username");
+        if (username instanceof String) {
+            rest.remove("username");
+            writeString(out, (String) username);
+        } else {
+            writeString(out, null);
+        }
+
+        JSONObject pet = isCompactPet(save.get("pet")) ? (JSONObject) rest.remove("pet") : null;
+        JSONObject progress = isCompactProgress(save.get("game_progress"))
+                ? (JSONObject) rest.remove("game_progress") : null;
+        JSONArray inventory = isCompactInventory(save.get("inventory")) ? (JSONArray) rest.remove("inventory") : null;
+
+        out.write((pet != null ? HAS_PET : 0) | (progress != null ? HAS_PROGRESS : 0)
+                | (inventory != null ? HAS_INVENTORY : 0));
+
+        if (pet != null) {
+            writeString(out, (String) pet.get("name"));
+            writeString(out, (String) pet.get("type"));
+            JSONObject stats = (JSONObject) pet.get("stats");
+            for (String stat : STATS) {
+                Object value = stats == null ? null : stats.get(stat);
+                out.write(value == null ? MISSING_STAT : ((Number) value).intValue());
+            }
+        }
+
+        if (progress != null) {
+            writeSigned(out, ((Number) progress.get("level")).longValue());
+            writeString(out, (String) progress.get("last_played"));
+        }
+
+        if (inventory != null) {
+            writeUnsigned(out, inventory.size());
+            for (Object obj : inventory) {
+                JSONObject item = (JSONObject) obj;
+                String name = (String) item.get("name");
+                int id = ItemRegistry.getId(name);
+                boolean inCatalog = id != ItemRegistry.UNKNOWN && id < ItemRegistry.getCatalogSize();
+                writeUnsigned(out, inCatalog ? id + 1 : 0);
+                if (!inCatalog) {
+                    writeString(out, name);
+                }
+                writeUnsigned(out, ((Number) item.get("quantity")).longValue());
+            }
+        }
+
+        writeString(out, rest.isEmpty() ? null : rest.toJSONString());
+        return out.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public JSONObject decode(byte[] data) throws IOException {
+        Input in = new Input(data);
+        if (in.readByte() != MAGIC[0] || in.readByte() != MAGIC[1]) {
+            throw new IOException("Not a binary save");
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary save version " + version);
+        }
+
+        JSONObject save = new JSONObject();
+        save.put("save_id", in.readSigned());
+        String username = in.readString();
+        if (username != null) {
+            save.put("username", username);
+        }
+
+        int flags = in.readByte();
+
+        if ((flags & HAS_PET) != 0) {
+            JSONObject pet = new JSONObject();
+            pet.put("name", in.readString());
+            pet.put("type", in.readString());
+            JSONObject stats = new JSONObject();
+            for (String stat : STATS) {
+                int value = in.readByte();
+                if (value != MISSING_STAT) {
+                    stats.put(stat, (long) value);
+                }
+            }
+            pet.put("stats", stats);
+            save.put("pet", pet);
+        }
+
+        if ((flags & HAS_PROGRESS) != 0) {
+            JSONObject progress = new JSONObject();
+            progress.put("level", in.readSigned());
+            progress.put("last_played", in.readString());
+            save.put("game_progress", progress);
+        }
+
+        if ((flags & HAS_INVENTORY) != 0) {
+            long count = in.readUnsigned();
+            JSONArray inventory = new JSONArray();
+            for (long i = 0; i < count; i++) {
+                int id = (int) in.readUnsigned();
+                String name;
+                if (id == 0) {
+                    name = in.readString();
+                } else if (id <= ItemRegistry.getCatalogSize()) {
+                    name = ItemRegistry.getName(id - 1);
+                } else {
+                    throw new IOException("Unknown item id " + id);
+                }
+                JSONObject item = new JSONObject();
+                item.put("name", name);
+                item.put("quantity", in.readUnsigned());
+                inventory.add(item);
+            }
+            save.put("inventory", inventory);
+        }
+
+        String rest = in.readString();
+        if (rest != null) {
+            save.putAll(new JsonSaveCodec().decode(rest.getBytes(StandardCharsets.UTF_8)));
+        }
+        return save;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".bin";
+    }
+
+    // The pet fits the binary layout: name, type and four stats in byte range
+    private boolean isCompactPet(Object obj) {
+        if (!(obj instanceof JSONObject)) {
+            return false;
+        }
+        JSONObject pet = (JSONObject) obj;
+        for (Object key : pet.keySet()) {
+            if (!"name".equals(key) && !"type".equals(key) && !"stats".equals(key)) {
+                return false;
+            }
+        }
+        if (!(pet.get("name") instanceof String) || !(pet.get("type") instanceof String)
+                || !(pet.get("stats") instanceof JSONObject)) {
+            return false;
+        }
+
+        JSONObject stats = (JSONObject) pet.get("stats");
+        int known = 0;
+        for (String stat : STATS) {
+            Object value = stats.get(stat);
+            if (value == null) {
+                continue;
+            }
+            if (!(value instanceof Long || value instanceof Integer)
+                    || ((Number) value).longValue() < 0 || ((Number) value).longValue() >= MISSING_STAT) {
+                return false;
+            }
+            known++;
+        }
+        return known == stats.size();
+    }
+
+    // Game progress fits the binary layout: exactly a whole level and a last_played string
+    private boolean isCompactProgress(Object obj) {
+        if (!(obj instanceof JSONObject)) {
+            return false;
+        }
+        JSONObject progress = (JSONObject) obj;
+        Object level = progress.get("level");
+        return progress.size() == 2 && (level instanceof Long || level instanceof Integer)
+                && progress.get("last_played") instanceof String;
+    }
+
+    // Every item is exactly a name and a non-negative whole quantity
+    private boolean isCompactInventory(Object obj) {
+        if (!(obj instanceof JSONArray)) {
+            return false;
+        }
+        for (Object element : (JSONArray) obj) {
+            if (!(element instanceof JSONObject)) {
+                return false;
+            }
+            JSONObject item = (JSONObject) element;
+            Object quantity = item.get("quantity");
+            if (item.size() != 2 || !(item.get("name") instanceof String)
+                    || !(quantity instanceof Long || quantity instanceof Integer)
+                    || ((Number) quantity).longValue() < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeUnsigned(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeSigned(ByteArrayOutputStream out, long value) {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeUnsigned(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsigned(out, bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads the primitive values of a binary save
+     */
+    private static class Input {
+        private final byte[] data;
+        private int position = 0;
+
+        Input(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() throws IOException {
+            if (position >= data.length) {
+                throw new IOException("Binary save is truncated");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        long readUnsigned() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in binary save");
+        }
+
+        long readSigned() throws IOException {
+            long value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() throws IOException {
+            long length = readUnsigned();
+            if (length == 0) {
+                return null;
+            }
+            int size = (int) (length - 1);
+            if (size < 0 || size > data.length - position) {
+                throw new IOException("Binary save is truncated");
+            }
+            String value = new String(data, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+    }
+}
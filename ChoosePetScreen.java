@@ -13,12 +13,6 @@ import javafx.scene.control.RadioButton;
 import javafx.scene.control.TextField;
 import javafx.scene.control.ToggleGroup;
 import org.json.simple.JSONObject;
-import org.json.simple.JSONArray;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
 import javafx.scene.control.Label;
 
 /**
@@ -39,54 +33,31 @@ import javafx.scene.control.Label;
  */
 
 public class ChoosePetScreen extends Application {
+    private final AssetManager.Scope assets = AssetManager.getInstance().newScope(); // Shared images, held while this screen is shown
 
     private String chosenPet;
-    private static final String SAVE_FILE_PATH = "savedata/savefile.json";
 
     /**
-     * Updates the pet's details in the save file by replacing the old pet's name and type with the new ones.
+     * Updates the pet's details in the save store by replacing the old pet's name and type with the new ones.
      * 
      * @param saveID The ID of the save to be updated.
      * @param petType The new type of the pet (e.g., "phoenix", "pegasus", "dragon").
      * @param petName The new name of the pet.
      */
+    @SuppressWarnings("unchecked")
     private void updatePet(int saveID, String petType, String petName){
-        JSONParser parser = new JSONParser();
-
-        try(FileReader reader = new FileReader(SAVE_FILE_PATH)){
-                JSONObject saveData = (JSONObject) parser.parse(reader);
-                JSONArray saves = (JSONArray) saveData.get("saves");
+        // The change is written with the rest of the session, the gameplay screen reads the same object
+        boolean found = SaveRepository.getInstance().editSave(saveID, save -> {
+            JSONObject pet = (JSONObject) save.get("pet");
+            pet.put("name", petName);
+            pet.put("type", petType);
+        });
 
-                if(saves == null){
-                        System.out.println("No 'saves' array found");
-                        return;
-                }
-                boolean updated = false;
-
-                for(Object saveObj : saves){
-                        JSONObject save = (JSONObject) saveObj;
-                        long currentSaveID = (long) save.get("save_id");
-
-                        if (currentSaveID == saveID) {
-                                JSONObject pet = (JSONObject) save.get("pet");
-                                pet.put("name", petName);
-                                pet.put("type", petType);
-                                updated = true;
-                                break;
-                            }
-                        }
-            
-                        if (updated) {
-                            try (FileWriter writer = new FileWriter(SAVE_FILE_PATH)) {
-                                writer.write(saveData.toJSONString());
-                                System.out.println("Successfully updated pet for save_id " + saveID);
-                            }
-                        } else {
-                            System.out.println("No save found with save_id " + saveID);
-                        }
-                    } catch (IOException | ParseException e) {
-                        e.printStackTrace();
-                    }
+        if (!found) {
+            System.out.println("No save found with save_id " + saveID);
+            return;
+        }
+        System.out.println("Successfully updated pet for save_id " + saveID);
     }
     
     /**
@@ -123,17 +94,12 @@ public class ChoosePetScreen extends Application {
         Font customFont3 = Font.loadFont(getClass().getResourceAsStream("Assets/Fonts/PixelifySans-SemiBold.ttf"), 20);
 
 //---------------------------------Pet Selection Buttons----------------------------------------------
-        Image phoenixDefaultButton = new Image(getClass().getResource("Assets/Buttons/DefaultButton.png").toExternalForm());
-        Image phoenixSelectButton = new Image(getClass().getResource("Assets/Buttons/SelectButton.png").toExternalForm());
-        ImageView phoenixButtonView = new ImageView(phoenixDefaultButton);
-
-        Image pegasusDefaultButton = new Image(getClass().getResource("Assets/Buttons/DefaultButton.png").toExternalForm());
-        Image pegasusSelectButton = new Image(getClass().getResource("Assets/Buttons/SelectButton.png").toExternalForm());
-        ImageView pegasusButtonView = new ImageView(pegasusDefaultButton);
-
-        Image dragonDefaultButton = new Image(getClass().getResource("Assets/Buttons/DefaultButton.png").toExternalForm());
-        Image dragonSelectButton = new Image(getClass().getResource("Assets/Buttons/SelectButton.png").toExternalForm());
-        ImageView dragonButtonView = new ImageView(dragonDefaultButton);
+        // The three buttons share one default and one selected image
+        Image defaultButton = assets.acquire("Assets/Buttons/DefaultButton.png");
+        Image selectButton = assets.acquire("Assets/Buttons/SelectButton.png");
+        ImageView phoenixButtonView = new ImageView(defaultButton);
+        ImageView pegasusButtonView = new ImageView(defaultButton);
+        ImageView dragonButtonView = new ImageView(defaultButton);
 
         phoenixButtonView.setFitWidth(100);
         phoenixButtonView.setFitHeight(100);
@@ -169,22 +135,22 @@ public class ChoosePetScreen extends Application {
         
         group.selectedToggleProperty().addListener((observable, oldValue, newValue) -> {
             if (phoenixButton.isSelected()) {
-                phoenixButtonView.setImage(phoenixSelectButton);
-                pegasusButtonView.setImage(pegasusDefaultButton);
-                dragonButtonView.setImage(dragonDefaultButton);
+                phoenixButtonView.setImage(selectButton);
+                pegasusButtonView.setImage(defaultButton);
+                dragonButtonView.setImage(defaultButton);
             } else if (pegasusButton.isSelected()) {
-                phoenixButtonView.setImage(phoenixDefaultButton);
-                pegasusButtonView.setImage(pegasusSelectButton);
-                dragonButtonView.setImage(dragonDefaultButton);
+                phoenixButtonView.setImage(defaultButton);
+                pegasusButtonView.setImage(selectButton);
+                dragonButtonView.setImage(defaultButton);
             } else if (dragonButton.isSelected()) {
-                phoenixButtonView.setImage(phoenixDefaultButton);
-                pegasusButtonView.setImage(pegasusDefaultButton);
-                dragonButtonView.setImage(dragonSelectButton);
+                phoenixButtonView.setImage(defaultButton);
+                pegasusButtonView.setImage(defaultButton);
+                dragonButtonView.setImage(selectButton);
             }
         });
 
 // ---------------------------------Next Button Display---------------------------------------------------
-        Image nextButtonImage = new Image(getClass().getResource("Assets/Buttons/NextButton.png").toExternalForm());
+        Image nextButtonImage = assets.acquire("Assets/Buttons/NextButton.png");
         ImageView nextButtonView = new ImageView(nextButtonImage);
         nextButtonView.setFitWidth(200);
         nextButtonView.setFitHeight(200);
@@ -235,7 +201,7 @@ public class ChoosePetScreen extends Application {
                 nameInput.setPromptText("Pet name");
                 nameInput.setStyle("-fx-font-size: 20px;");
 
-                Image confirmButtonImage = new Image(getClass().getResource("Assets/Buttons/ConfirmButton.png").toExternalForm());
+                Image confirmButtonImage = assets.acquire("Assets/Buttons/ConfirmButton.png");
                 ImageView confirmButtonView = new ImageView(confirmButtonImage);
                 confirmButtonView.setFitWidth(100);
                 confirmButtonView.setFitHeight(100);
@@ -314,19 +280,19 @@ public class ChoosePetScreen extends Application {
         dragon_label.setStrokeWidth(1.5);
       
 //---------------------------------Pet Icons Display----------------------------------------------
-        ImageView phoenix = new ImageView(new Image(getClass().getResource("Assets/PetIcons/PhoenixIcon.gif").toExternalForm()));
+        ImageView phoenix = new ImageView(assets.acquire("Assets/PetIcons/PhoenixIcon.gif"));
         phoenix.setPreserveRatio(true);
         phoenix.setFitWidth(400);
         phoenix.setTranslateX(0);
         phoenix.setTranslateY(60);
 
-        ImageView pegasus = new ImageView(new Image(getClass().getResource("Assets/PetIcons/PegasusIcon.gif").toExternalForm()));
+        ImageView pegasus = new ImageView(assets.acquire("Assets/PetIcons/PegasusIcon.gif"));
         pegasus.setPreserveRatio(true);
         pegasus.setFitWidth(400);
         pegasus.setTranslateX(300);
         pegasus.setTranslateY(-360);
 
-        ImageView dragon = new ImageView(new Image(getClass().getResource("Assets/PetIcons/DragonIcon.gif").toExternalForm()));
+        ImageView dragon = new ImageView(assets.acquire("Assets/PetIcons/DragonIcon.gif"));
         dragon.setPreserveRatio(true);
         dragon.setFitWidth(400);
         dragon.setTranslateX(600);
@@ -334,55 +300,55 @@ public class ChoosePetScreen extends Application {
 
 // ---------------------------------Food Icons Display----------------------------------------------
 
-        ImageView apple = new ImageView(new Image(getClass().getResource("Assets/FoodIcons/apple.png").toExternalForm()));
+        ImageView apple = new ImageView(assets.acquire("Assets/FoodIcons/apple.png"));
         apple.setPreserveRatio(true);
         apple.setFitWidth(50);
         apple.setTranslateX(110);
         apple.setTranslateY(-1120);
 
-        ImageView brocolli = new ImageView(new Image(getClass().getResource("Assets/FoodIcons/broc.png").toExternalForm()));
+        ImageView brocolli = new ImageView(assets.acquire("Assets/FoodIcons/broc.png"));
         brocolli.setPreserveRatio(true);
         brocolli.setFitWidth(60);
         brocolli.setTranslateX(170);
         brocolli.setTranslateY(-1190);
 
-        ImageView chilli = new ImageView(new Image(getClass().getResource("Assets/FoodIcons/hotChilli.png").toExternalForm()));
+        ImageView chilli = new ImageView(assets.acquire("Assets/FoodIcons/hotChilli.png"));
         chilli.setPreserveRatio(true);
         chilli.setFitWidth(60);
         chilli.setTranslateX(230);
         chilli.setTranslateY(-1270);
         
-        ImageView goat = new ImageView(new Image(getClass().getResource("Assets/FoodIcons/goat.png").toExternalForm()));
+        ImageView goat = new ImageView(assets.acquire("Assets/FoodIcons/goat.png"));
         goat.setPreserveRatio(true);
         goat.setFitWidth(60);
         goat.setTranslateX(720);
         goat.setTranslateY(-1350);
 
-        ImageView brocolliPegasus = new ImageView(new Image(getClass().getResource("Assets/FoodIcons/broc.png").toExternalForm()));
+        ImageView brocolliPegasus = new ImageView(assets.acquire("Assets/FoodIcons/broc.png"));
         brocolliPegasus.setPreserveRatio(true);
         brocolliPegasus.setFitWidth(60);
         brocolliPegasus.setTranslateX(470);
         brocolliPegasus.setTranslateY(-1430);
 
-        ImageView pinkHerb = new ImageView(new Image(getClass().getResource("Assets/FoodIcons/PinkHerb.png").toExternalForm()));
+        ImageView pinkHerb = new ImageView(assets.acquire("Assets/FoodIcons/PinkHerb.png"));
         pinkHerb.setPreserveRatio(true);
         pinkHerb.setFitWidth(60);
         pinkHerb.setTranslateX(530);
         pinkHerb.setTranslateY(-1510);
 
-        ImageView goldenApple = new ImageView(new Image(getClass().getResource("Assets/FoodIcons/goldenApple.png").toExternalForm()));
+        ImageView goldenApple = new ImageView(assets.acquire("Assets/FoodIcons/goldenApple.png"));
         goldenApple.setPreserveRatio(true);
         goldenApple.setFitWidth(60);
         goldenApple.setTranslateX(410);
         goldenApple.setTranslateY(-1590);
 
-        ImageView fish = new ImageView(new Image(getClass().getResource("Assets/FoodIcons/fish.png").toExternalForm()));
+        ImageView fish = new ImageView(assets.acquire("Assets/FoodIcons/fish.png"));
         fish.setPreserveRatio(true);
         fish.setFitWidth(60);
         fish.setTranslateX(780);
         fish.setTranslateY(-1670);
 
-        ImageView hotChilliDragon = new ImageView(new Image(getClass().getResource("Assets/FoodIcons/hotChilli.png").toExternalForm()));
+        ImageView hotChilliDragon = new ImageView(assets.acquire("Assets/FoodIcons/hotChilli.png"));
         hotChilliDragon.setPreserveRatio(true);
         hotChilliDragon.setFitWidth(60);
         hotChilliDragon.setTranslateX(830);
@@ -397,19 +363,19 @@ public class ChoosePetScreen extends Application {
         difficulty_label.setStrokeWidth(1.5);
 
 //---------------------------------Difficulty Stats Display----------------------------------------------
-        ImageView difficultyStatsPhoenix = new ImageView(new Image(getClass().getResource("Assets/Stats/DifficultyStats.png").toExternalForm()));
+        ImageView difficultyStatsPhoenix = new ImageView(assets.acquire("Assets/Stats/DifficultyStats.png"));
         difficultyStatsPhoenix.setPreserveRatio(true);
         difficultyStatsPhoenix.setFitWidth(300);
         difficultyStatsPhoenix.setTranslateX(60);
         difficultyStatsPhoenix.setTranslateY(-1820);
 
-        ImageView difficultyStatsPegasus = new ImageView(new Image(getClass().getResource("Assets/Stats/DifficultyStats.png").toExternalForm()));
+        ImageView difficultyStatsPegasus = new ImageView(assets.acquire("Assets/Stats/DifficultyStats.png"));
         difficultyStatsPegasus.setPreserveRatio(true);
         difficultyStatsPegasus.setFitWidth(300);
         difficultyStatsPegasus.setTranslateX(350);
         difficultyStatsPegasus.setTranslateY(-2140);
 
-        ImageView difficultyStatsDragon = new ImageView(new Image(getClass().getResource("Assets/Stats/DifficultyStats.png").toExternalForm()));
+        ImageView difficultyStatsDragon = new ImageView(assets.acquire("Assets/Stats/DifficultyStats.png"));
         difficultyStatsDragon.setPreserveRatio(true);
         difficultyStatsDragon.setFitWidth(300);
         difficultyStatsDragon.setTranslateX(650);
@@ -490,6 +456,7 @@ public class ChoosePetScreen extends Application {
         );
        
         Scene scene = new Scene(layout, 1000, 800);
+        assets.holdWhileShown(stage, scene); // Release the images once the scene is replaced
         scene.getStylesheets().add(getClass().getResource("Styles/ChoosePetScreen.css").toExternalForm());
         stage.setResizable(false);
 
@@ -20,6 +20,7 @@ import javafx.geometry.*;
  * @since 1.0
  */
 public class ChoosePetTutorialScreen extends Application {
+    private final AssetManager.Scope assets = AssetManager.getInstance().newScope(); // Shared images, held while this screen is shown
     private static Scene previousScene;
 
     /**
@@ -77,7 +78,7 @@ public class ChoosePetTutorialScreen extends Application {
         howTo_msg.setTranslateY(-30);
 
         // Create and configure a cancel button to close the stage.
-        Image cancelButtonImage = new Image(getClass().getResource("Assets/Buttons/closebtn.png").toExternalForm());
+        Image cancelButtonImage = assets.acquire("Assets/Buttons/closebtn.png");
         ImageView cancelButtonView = new ImageView(cancelButtonImage);
         cancelButtonView.setFitWidth(50);
         cancelButtonView.setFitHeight(50);
@@ -101,7 +102,7 @@ public class ChoosePetTutorialScreen extends Application {
 
         // Create and configure a next button to navigate to the "Take Care Tutorial"
         // screen.
-        Image nextButtonImage = new Image(getClass().getResource("Assets/Buttons/NextButton.png").toExternalForm());
+        Image nextButtonImage = assets.acquire("Assets/Buttons/NextButton.png");
         ImageView nextButtonView = new ImageView(nextButtonImage);
         nextButtonView.setFitWidth(200);
         nextButtonView.setFitHeight(200);
@@ -121,7 +122,7 @@ public class ChoosePetTutorialScreen extends Application {
         });
 
         // Create and configure an ImageView for the background.
-        Image background = new Image(getClass().getResource("Assets/Images/box.png").toExternalForm());
+        Image background = assets.acquire("Assets/Images/box.png");
         ImageView backgroundView = new ImageView(background);
         backgroundView.setPreserveRatio(false);
         backgroundView.setFitWidth(1000);
@@ -140,6 +141,7 @@ public class ChoosePetTutorialScreen extends Application {
 
         // Create the scene and apply CSS styling.
         Scene scene = new Scene(root, 1000, 800);
+        assets.holdWhileShown(stage, scene); // Release the images once the scene is replaced
         scene.getStylesheets().add("Styles/TutorialScreen.css");
         return scene;
     }
@@ -35,6 +35,7 @@ import javafx.scene.image.ImageView;
  * @since 1.0
  */
 public class GameOverScreen extends Application {
+    private final AssetManager.Scope assets = AssetManager.getInstance().newScope(); // Shared images, held while this screen is shown
 
     /**
      * The main entry point for the JavaFX application.
@@ -66,7 +67,7 @@ public class GameOverScreen extends Application {
         Font customFont1 = Font.loadFont(getClass().getResourceAsStream("Assets/fonts/PixelifySans-SemiBold.ttf"), 65);
 
         // Load the image for the buttons
-        Image buttonBackground = new Image("Assets/Buttons/rectanglebtn.png");
+        Image buttonBackground = assets.acquire("Assets/Buttons/rectanglebtn.png");
         BorderPane borderPane = new BorderPane();
 
         Text title = new Text("Game Over");
@@ -95,6 +96,7 @@ public class GameOverScreen extends Application {
 
         root.getChildren().addAll(title, homeButton);
         Scene scene = new Scene(root, 1000, 800);
+        assets.holdWhileShown(stage, scene); // Release the images once the scene is replaced
         scene.getStylesheets().add(getClass().getResource("Styles/GameOverScreen.css").toExternalForm());
 
         stage.setTitle("Game Over Screen");
@@ -21,6 +21,7 @@ import javafx.geometry.*;
  * @since 1.0
  */
 public class GameOverTutorialScreen extends Application {
+    private final AssetManager.Scope assets = AssetManager.getInstance().newScope(); // Shared images, held while this screen is shown
     private static Scene previousScene;
 
     /**
@@ -86,7 +87,7 @@ public class GameOverTutorialScreen extends Application {
         howTo_msg.setTranslateY(-30);
 
         // Create and configure a cancel button to close the stage.
-        Image cancelButtonImage = new Image(getClass().getResource("Assets/Buttons/closebtn.png").toExternalForm());
+        Image cancelButtonImage = assets.acquire("Assets/Buttons/closebtn.png");
         ImageView cancelButtonView = new ImageView(cancelButtonImage);
         cancelButtonView.setFitWidth(50);
         cancelButtonView.setFitHeight(50);
@@ -109,7 +110,7 @@ public class GameOverTutorialScreen extends Application {
         petDying.setTranslateY(50);
 
         // Create and configure an ImageView for the background
-        Image background = new Image(getClass().getResource("Assets/Images/box.png").toExternalForm());
+        Image background = assets.acquire("Assets/Images/box.png");
         ImageView backgroundView = new ImageView(background);
         backgroundView.setPreserveRatio(false);
         backgroundView.setFitWidth(1000);
@@ -128,6 +129,7 @@ public class GameOverTutorialScreen extends Application {
 
         // Create the scene and apply CSS styling.
         Scene scene = new Scene(root, 1000, 800);
+        assets.holdWhileShown(stage, scene); // Release the images once the scene is replaced
         scene.getStylesheets().add("Styles/TutorialScreen.css");
         return scene;
 
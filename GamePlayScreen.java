@@ -1,12 +1,12 @@
 
-import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import javafx.animation.FadeTransition;
 import javafx.animation.KeyFrame;
 import javafx.animation.PauseTransition;
 import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
@@ -30,10 +30,8 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
+import java.io.IOException;
 import java.net.URL;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 
@@ -58,6 +56,7 @@ import javafx.scene.media.MediaPlayer;
  * initialized
  * 
  * @author William Du
+ * @author agent
  * @version 1.1 Added the inventory system and inventory items
  * @version 1.2 Added the items ability to affect the sprite, each action has
  *          its own sprite
@@ -65,15 +64,16 @@ import javafx.scene.media.MediaPlayer;
  * @version 1.4 Added the ability to save the game data to a JSON file
  * @version 1.5 Added the ability to load the game data from a JSON file
  * @version 1.7 Added extra functionality when the pet is given a gift
+ * @version 1.8 Decay rates and item effects come from the species descriptor
+ * @version 1.9 Game logic moved to PetSimulation, this class is the view
+ * @version 2.0 Stat warnings and game over only fire when a threshold is crossed
+ * @version 2.1 Inventory and shop icons are drawn from the icon atlas
+ * @version 2.2 Pet animations are decoded once and played on one sprite node
  * 
  * @since 1.0
  * 
  */
 public class GamePlayScreen extends Application {
-    // Paths and formats for loading images
-    private static final String BASE_PATH = "Assets/Sprites/";
-    private static final String[] FORMATS = { ".png", ".jpg", ".gif" }; // Supported formats
-
     // Flags to prevent multiple popups and animations
     private boolean isStatsPopupOpen = false; // Flag to prevent multiple popups
     private boolean isAnimationRunning = false; // Flag to prevent multiple animations, and prevent stats popup from
@@ -81,27 +81,26 @@ public class GamePlayScreen extends Application {
     private boolean isShopOpen = false; // Check if the shop popup is open
 
     // Save data variables
-    private String saveFilePath = "savedata/savefile.json";
+    private final SaveRepository saveRepository = SaveRepository.getInstance();
+    private final AutosaveService autosave = new AutosaveService(saveRepository);
     private static int saveId = 1;
-    private String username = "";
-    private String petName = "";
-    private String petType = "";
-    private int playerLevel;
-    private Pet my_pet = null;
-    private int hunger, fun, sleep, grooming;
-    private Inventory inventory = new Inventory();
+    private static final long JOURNAL_COMPACT_INTERVAL = 30; // Seconds between journal compactions
+    private PetSimulation simulation; // The game logic, this screen only shows it and feeds it input
+    private SessionRecorder recorder; // Records the session when animora.session.record is set
+
+    private final AssetManager.Scope assets = AssetManager.getInstance().newScope(); // Shared images, held while this screen is shown
+    private final IconAtlas iconAtlas = IconAtlas.getInstance(); // Inventory and shop icons in one sheet
+    private final SpriteAnimator animator = SpriteAnimator.getInstance(); // Plays the pet sprite's frames
+    private SpriteAnimation idleAnimation; // The pet's sprite between actions
 
     // Cursor variables
-    private final Image defaultCursorImage = new Image("Assets/Cursors/cursor.png");
-    private final Image hoverCursorImage = new Image("Assets/Cursors/cursor_hover.png");
+    private final Image defaultCursorImage = assets.acquire("Assets/Cursors/cursor.png");
+    private final Image hoverCursorImage = assets.acquire("Assets/Cursors/cursor_hover.png");
     private final Cursor defaultCursor = new ImageCursor(defaultCursorImage);
     private final Cursor hoverCursor = new ImageCursor(hoverCursorImage);
 
-    // Time Line variables
-    private Timeline hungerTimeline;
-    private Timeline funTimeline;
-    private Timeline groomingTimeline;
-    private Timeline sleepTimeline;
+    // One timeline feeds time to the simulation, which decays every stat
+    private Timeline simulationTimeline;
 
     
     /** 
@@ -130,6 +129,9 @@ public class GamePlayScreen extends Application {
         // Start the stat decrease timers
         startStatDecreaseTimers(stage);
 
+        // Fold the save journal into the snapshot in the background
+        saveRepository.startCompactor(JOURNAL_COMPACT_INTERVAL);
+
     }
 
     
@@ -142,21 +144,20 @@ public class GamePlayScreen extends Application {
         // nodes in a single stack with the last added node on top
         StackPane gameContent = new StackPane();
         // Load an pet sprite
-        Image pet_sprite = loadImage(BASE_PATH, petType, FORMATS);
-
-        // Add the spirte to the stack node
-        ImageView defaultSprite;
-        if (pet_sprite != null) {
-            defaultSprite = new ImageView(pet_sprite);
-            defaultSprite.setFitHeight(300);
-            defaultSprite.setFitWidth(300);
-            // Set position
-            defaultSprite.setTranslateX(0); // X position
-            defaultSprite.setTranslateY(150); // Y position
-            defaultSprite.setPreserveRatio(true);
-            gameContent.getChildren().add(defaultSprite);
+        idleAnimation = loadAnimation(simulation.getSpecies().getSprite("idle"));
+
+        // Add the spirte to the stack node, every animation plays on this one view
+        ImageView defaultSprite = new ImageView();
+        defaultSprite.setFitHeight(300);
+        defaultSprite.setFitWidth(300);
+        // Set position
+        defaultSprite.setTranslateX(0); // X position
+        defaultSprite.setTranslateY(150); // Y position
+        defaultSprite.setPreserveRatio(true);
+        gameContent.getChildren().add(defaultSprite); // Still shows the actions without an idle sprite
+        if (idleAnimation != null) {
+            animator.play(defaultSprite, idleAnimation);
         } else {
-            defaultSprite = new ImageView();
             gameContent.getChildren().add(new Label("Image not found"));
         }
 
@@ -176,6 +177,7 @@ public class GamePlayScreen extends Application {
         root.setBottom(inventoryPane);
 
         Scene scene = new Scene(root, 1000, 800, Color.LIGHTBLUE);
+        assets.holdWhileShown(stage, scene); // Release the images once the scene is replaced
         registerKeyEvents(stage, scene, gameContent, inventoryPane, uiButtons, defaultSprite);
         // Set the css
         try {
@@ -192,223 +194,71 @@ public class GamePlayScreen extends Application {
     /**
      * Load the save data from the JSON file
      * 
-     * The save data is loaded from the url specified in the saveFilePath variable
-     * The save data is then parsed and the pet name, type, and stats are extracted
-     * and stored in the class variables
-     * The pet object is then initialized based on the loaded data
+     * The save data is read from the save's own shard in the save store
+     * and handed to PetSimulation, which holds the pet, inventory and level
      * If the save data is not found or invalid, a default pet is initialized
      * 
      * 
      * @param saveId
      */
     public void loadSaveData(int saveId) {
-        // Load the pet name and type from the saved file
-        JSONParser parser = new JSONParser();
+        // Get the save from the shared repository, it is only read from disk once
+        JSONObject saveObject = null;
         try {
-            // Parse the JSON file
-            JSONObject saveData = (JSONObject) parser.parse(new FileReader(saveFilePath));
-
-            // Validate and extract the "saves" array
-            JSONArray saves = (JSONArray) saveData.get("saves");
-            if (saves == null) {
-                throw new IllegalArgumentException("Save data does not contain a 'saves' array.");
-            }
-
-            // Find the save object with save_id = saveId
-            JSONObject saveObject = null;
-            for (Object obj : saves) {
-                JSONObject save = (JSONObject) obj;
-                if (((Long) save.get("save_id")).intValue() == GamePlayScreen.saveId) {
-                    saveObject = save;
-                    break;
-                }
-            }
-
-            if (saveObject != null) {
-                // Extract username
-                username = (String) saveObject.get("username");
-                if (username == null)
-                    throw new IllegalArgumentException("Missing 'username' in save data.");
-
-                // Extract pet data
-                JSONObject petData = (JSONObject) saveObject.get("pet");
-                if (petData == null)
-                    throw new IllegalArgumentException("Missing 'pet' in save data.");
-                petName = (String) petData.get("name");
-                petType = (String) petData.get("type");
-                if (petName == null || petType == null)
-                    throw new IllegalArgumentException("Missing pet name or type.");
-
-                // Extract pet stats
-                JSONObject stats = (JSONObject) petData.get("stats");
-                if (stats != null) {
-                    hunger = stats.containsKey("hunger") ? ((Long) stats.get("hunger")).intValue() : 0;
-                    fun = stats.containsKey("fun") ? ((Long) stats.get("fun")).intValue() : 0;
-                    sleep = stats.containsKey("sleep") ? ((Long) stats.get("sleep")).intValue() : 0;
-                    grooming = stats.containsKey("grooming") ? ((Long) stats.get("grooming")).intValue() : 0;
-                }
-
-                // Extract inventory
-                JSONArray inventoryArray = (JSONArray) saveObject.get("inventory");
-                if (inventoryArray != null) {
-                    inventory.loadFromJSON(inventoryArray);
-                    inventory.display();
-                }
-
-                // Extract game progress
-                JSONObject gameProgress = (JSONObject) saveObject.get("game_progress");
-                if (gameProgress == null)
-                    throw new IllegalArgumentException("Missing 'gameProgress' in save data.");
-                if (gameProgress != null && gameProgress.containsKey("level")) {
-                    playerLevel = ((Long) gameProgress.get("level")).intValue();
-                } else {
-                    playerLevel = 1; // Default value
-                }
-
-                // Log loaded data
-                System.out.println("Loaded save data: Username: " + username + ", Pet Name: " + petName + ", Pet Type: "
-                        + petType + ", Player Level: " + playerLevel);
-            } else {
+            saveObject = saveRepository.getSave(saveId);
+            if (saveObject == null) {
                 System.err.println("Save data with save_id = " + saveId + " not found.");
             }
-
         } catch (Exception e) {
             System.err.println("Failed to load save data: " + e.getMessage());
             e.printStackTrace();
         }
 
-        // Initialize the pet object based on the loaded data
-        try {
-            // Validate pet type
-            if (petType == null || petType.isEmpty()) {
-                throw new IllegalArgumentException("Invalid pet type: Pet type is null or empty.");
-            }
+        // Build the game logic from the save, decaying the pet for the time it was away
+        simulation = PetSimulation.fromSave(saveObject, System.currentTimeMillis());
+        journalAction("offline");
 
-            // Initialize pet based on type
-            switch (petType.toLowerCase()) {
-                case "pegasus":
-                    my_pet = new Pegasus(petName);
-                    break;
-                case "phoenix":
-                    my_pet = new Phoenix(petName);
-                    break;
-                case "dragon":
-                    my_pet = new Dragon(petName);
-                    break;
-                default:
-                    throw new IllegalArgumentException("Invalid pet type: " + petType);
+        // Record the session for replay, starting after the time away
+        if (recorder != null) {
+            recorder.close();
+            recorder = null;
+        }
+        if (Boolean.getBoolean(SessionRecorder.RECORD_PROPERTY)) {
+            try {
+                recorder = SessionRecorder.open(saveId, simulation);
+                simulation.setRecorder(recorder);
+            } catch (IOException e) {
+                System.err.println("Failed to start session recording: " + e.getMessage());
+                e.printStackTrace();
             }
-
-            // Set pet stats (example)
-            my_pet.setHunger(hunger);
-            my_pet.setFun(fun);
-            my_pet.setSleep(sleep);
-            my_pet.setGrooming(grooming);
-
-            System.out.println("Pet initialized: " + petName + " (" + petType + ")");
-        } catch (IllegalArgumentException e) {
-            System.err.println(e.getMessage());
-            // Fallback: Initialize with default pet
-            my_pet = new Pegasus(petName != null ? petName : "DefaultPet");
-            my_pet.setHunger(5);
-            my_pet.setFun(5);
-            my_pet.setSleep(5);
-            my_pet.setGrooming(5);
-            System.out.println("Initialized default pet: " + my_pet.getName());
-        } catch (Exception e) {
-            System.err.println("Unexpected error during pet initialization: " + e.getMessage());
-            e.printStackTrace();
         }
     }
 
     /**
      * Save the game data to the JSON file
      * 
-     * The game data is saved to the url specified in the saveFilePath variable
-     * The save data is updated with the current pet stats, inventory, and game
-     * level
+     * Stats, inventory items and level that changed since the last action are
+     * recorded in the save journal, and the pet details are updated in the
+     * cached save. The save's own shard in the save store is then written in
+     * the background so the UI never waits on the disk
      * 
      * 
      * @param saveId
      */
-    @SuppressWarnings("unchecked")
     public void saveGameData(int saveId) {
-        JSONParser parser = new JSONParser();
         try {
-            // Parse the existing save file
-            JSONObject saveData = (JSONObject) parser.parse(new FileReader(saveFilePath));
-            JSONArray saves = (JSONArray) saveData.get("saves");
-
-            // Find the save object with save_id = saveId
-            JSONObject saveObject = null;
-            for (Object obj : saves) {
-                JSONObject save = (JSONObject) obj;
-                if (((Long) save.get("save_id")).intValue() == saveId) {
-                    saveObject = save;
-                    System.out.println("Save object found with save_id = " + saveId);
-                    break;
-                }
-            }
+            // Record whatever changed without a journaled action
+            journalAction("save");
 
-            if (saveObject != null) {
-                // Update username
-                saveObject.put("username", username);
-                System.out.println("Username updated: " + username);
-
-                // Update pet data
-                JSONObject petData = (JSONObject) saveObject.get("pet");
-                if (petData != null) {
-                    petData.put("name", my_pet.getName());
-                    petData.put("type", my_pet.getType());
-                    System.out.println("Pet data updated: " + my_pet.getName() + " (" + my_pet.getType() + ")");
-
-                    // Update pet stats
-                    JSONObject stats = (JSONObject) petData.get("stats");
-                    if (stats != null) {
-                        stats.put("hunger", my_pet.getHunger());
-                        stats.put("fun", my_pet.getFun());
-                        stats.put("sleep", my_pet.getSleep());
-                        stats.put("grooming", my_pet.getGrooming());
-                        System.out.println(
-                                "Pet stats updated: Hunger: " + my_pet.getHunger() + ", Fun: " + my_pet.getFun()
-                                        + ", Sleep: " + my_pet.getSleep() + ", Grooming: " + my_pet.getGrooming());
-                    }
-                }
-
-                // Update inventory
-                if (inventory != null) {
-                    // Create a new JSONArray for the updated inventory
-                    JSONArray updatedInventory = new JSONArray();
-                    for (InventoryItem item : inventory.getItems()) {
-                        JSONObject itemObject = new JSONObject();
-                        itemObject.put("name", item.getName());
-                        itemObject.put("quantity", item.getQuantity());
-                        updatedInventory.add(itemObject);
-                    }
-                    // Replace the existing inventory in saveObject with the updated one
-                    saveObject.put("inventory", updatedInventory);
-                    System.out.println("Inventory updated: " + updatedInventory.toJSONString());
-                }
-
-                // Update game progress
-                JSONObject gameProgress = (JSONObject) saveObject.get("game_progress");
-                if (gameProgress != null) {
-                    gameProgress.put("level", playerLevel);
-                    gameProgress.put("last_played", java.time.LocalDateTime.now().toString());
-                    System.out.println("Game progress updated: Level: " + playerLevel);
-                    System.out.println("Last played: " + gameProgress.get("last_played"));
-                }
-            }
-
-            // Write updated data back to file
-            try (FileWriter writer = new FileWriter(saveFilePath)) {
-                writer.write(saveData.toJSONString());
-                writer.flush();
+            // Update the shared save, journaled actions are already applied to it
+            if (saveRepository.editSave(saveId, simulation::writeTo)) {
+                // Write the updated save back to its shard without blocking the UI
+                autosave.saveNow();
                 System.out.println("Game data saved successfully!");
+            } else {
+                System.err.println("Save data with save_id = " + saveId + " not found.");
             }
 
-        } catch (FileNotFoundException e) {
-            System.err.println("Save file not found: " + e.getMessage());
         } catch (Exception e) {
             System.err.println("Failed to save game data: " + e.getMessage());
             e.printStackTrace();
@@ -443,14 +293,14 @@ public class GamePlayScreen extends Application {
                 if (!isAnimationRunning) { // Ensure no duplicate animations
                     System.out.println("'F' key pressed. Feeding pet...");
 
-                    my_pet.increaseHunger(1);
+                    simulation.care(Pet.HUNGER); // Raises the stat and the level by one
 
-                    System.out.println("Pet has been fed, current hunger: " + my_pet.getHunger());
-                    playerLevel++; // Increase level
-                    System.out.println("User level: " + playerLevel);
+                    System.out.println("Pet has been fed, current hunger: " + simulation.getPet().getHunger());
+                    journalAction("feed");
+                    System.out.println("User level: " + simulation.getPlayerLevel());
                     try {
                         playAnimation(gameContent, inventory, uiButtons,
-                                "Assets/Sprites/" + my_pet.getType().toLowerCase() + "_eat.gif", defaultSprite, 4);
+                                simulation.getSpecies().getSprite("eat"), defaultSprite, 4);
                     } catch (IndexOutOfBoundsException e) {
                         System.err.println("Index out of bounds exception: " + e.getMessage());
                     }
@@ -462,14 +312,14 @@ public class GamePlayScreen extends Application {
                 if (!isAnimationRunning) { // Ensure no duplicate animations
                     System.out.println("'P' key pressed. Playing with pet...");
 
-                    my_pet.increaseFun(1);
+                    simulation.care(Pet.FUN); // Raises the stat and the level by one
 
-                    System.out.println("Pet has played, current fun: " + my_pet.getFun());
-                    playerLevel++; // Increase level
-                    System.out.println("User level: " + playerLevel);
+                    System.out.println("Pet has played, current fun: " + simulation.getPet().getFun());
+                    journalAction("play");
+                    System.out.println("User level: " + simulation.getPlayerLevel());
                     try {
                         playAnimation(gameContent, inventory, uiButtons,
-                                "Assets/Sprites/" + my_pet.getType().toLowerCase() + "_play.gif", defaultSprite, 4);
+                                simulation.getSpecies().getSprite("play"), defaultSprite, 4);
                     } catch (IndexOutOfBoundsException e) {
                         System.err.println("Index out of bounds exception: " + e.getMessage());
                     }
@@ -481,14 +331,14 @@ public class GamePlayScreen extends Application {
                 if (!isAnimationRunning) { // Ensure no duplicate animations
                     System.out.println("'G' key pressed. Grooming pet...");
 
-                    my_pet.increaseGrooming(1);
+                    simulation.care(Pet.GROOMING); // Raises the stat and the level by one
 
-                    System.out.println("Pet has been groomed, current grooming: " + my_pet.getGrooming());
-                    playerLevel++; // Increase level
-                    System.out.println("User level: " + playerLevel);
+                    System.out.println("Pet has been groomed, current grooming: " + simulation.getPet().getGrooming());
+                    journalAction("groom");
+                    System.out.println("User level: " + simulation.getPlayerLevel());
                     try {
                         playAnimation(gameContent, inventory, uiButtons,
-                                "Assets/Sprites/" + my_pet.getType().toLowerCase() + "_bath.gif", defaultSprite, 4);
+                                simulation.getSpecies().getSprite("bath"), defaultSprite, 4);
                     } catch (IndexOutOfBoundsException e) {
                         System.err.println("Index out of bounds exception: " + e.getMessage());
                     }
@@ -500,14 +350,14 @@ public class GamePlayScreen extends Application {
                 if (!isAnimationRunning) { // Ensure no duplicate animations
                     System.out.println("'B' key pressed. Putting pet to sleep...");
 
-                    my_pet.increaseSleep(1);
+                    simulation.care(Pet.SLEEP); // Raises the stat and the level by one
 
-                    System.out.println("Pet has slept, current sleep: " + my_pet.getSleep());
-                    playerLevel++; // Increase level
-                    System.out.println("User level: " + playerLevel);
+                    System.out.println("Pet has slept, current sleep: " + simulation.getPet().getSleep());
+                    journalAction("sleep");
+                    System.out.println("User level: " + simulation.getPlayerLevel());
                     try {
                         playAnimation(gameContent, inventory, uiButtons,
-                                "Assets/Sprites/" + my_pet.getType().toLowerCase() + "_sleep.gif", defaultSprite, 4);
+                                simulation.getSpecies().getSprite("sleep"), defaultSprite, 4);
                     } catch (IndexOutOfBoundsException e) {
                         System.err.println("Index out of bounds exception: " + e.getMessage());
                     }
@@ -531,13 +381,15 @@ public class GamePlayScreen extends Application {
      * @param stage The stage
      */
     private void showStatsPopUp(StackPane root, Stage stage) {
+        String[] statImagePaths = new String[4]; // Released with the popup's other images when it closes
+
         // Create popup container with rounded corners and shadow effect
         BorderPane popupContainer = new BorderPane();
         popupContainer.setMaxSize(400, 400);
         popupContainer.setStyle("-fx-border-radius: 15; -fx-effect: dropshadow(gaussian, lightblue, 10, 0.5, 0, 0);");
 
         // Set background image for popup
-        Image backgroundImage = new Image("/Assets/Images/box.png");
+        Image backgroundImage = assets.acquire("/Assets/Images/box.png");
         BackgroundImage bgImage = new BackgroundImage(
                 backgroundImage,
                 BackgroundRepeat.NO_REPEAT,
@@ -553,6 +405,7 @@ public class GamePlayScreen extends Application {
         closeBtn.setOnMouseClicked(event -> {
             root.getChildren().remove(popupContainer);
             isStatsPopupOpen = false;
+            releasePopupImages(statImagePaths);
         });
         headerPane.getChildren().add(closeBtn);
         popupContainer.setTop(headerPane);
@@ -567,7 +420,8 @@ public class GamePlayScreen extends Application {
 
         // Create and add stat elements (Hunger, Grooming, Sleep, Fun)
         String[] statNames = { "Hunger", "Grooming", "Sleep", "Fun" };
-        int[] statValues = { my_pet.getHunger(), my_pet.getGrooming(), my_pet.getSleep(), my_pet.getFun() };
+        Pet pet = simulation.getPet();
+        int[] statValues = { pet.getHunger(), pet.getGrooming(), pet.getSleep(), pet.getFun() };
 
         for (int i = 0; i < statNames.length; i++) {
             VBox statBox = new VBox(3);
@@ -576,7 +430,8 @@ public class GamePlayScreen extends Application {
             Label statLabel = new Label(statNames[i]);
             statLabel.setFont(customFont);
 
-            ImageView statImage = new ImageView(new Image("Assets/Stats/stats" + statValues[i] + ".png"));
+            statImagePaths[i] = "Assets/Stats/stats" + statValues[i] + ".png";
+            ImageView statImage = new ImageView(assets.acquire(statImagePaths[i]));
 
             statBox.getChildren().addAll(statLabel, statImage);
             statsContainer.getChildren().add(statBox);
@@ -612,7 +467,7 @@ public class GamePlayScreen extends Application {
         StackPane.setAlignment(savePopupContainer, Pos.CENTER); // Center the popup
 
         // Set background image
-        Image backgroundImage = new Image(getClass().getResource("/Assets/Images/box.png").toExternalForm());
+        Image backgroundImage = assets.acquire("/Assets/Images/box.png");
         BackgroundImage bgImage = new BackgroundImage(
                 backgroundImage,
                 BackgroundRepeat.NO_REPEAT,
@@ -637,6 +492,7 @@ public class GamePlayScreen extends Application {
         closeBtn.setOnMouseClicked(event -> {
             root.getChildren().remove(savePopupContainer);
             isSavePopupOpen = false; // Mark popup as closed
+            releasePopupImages();
             // playSound("Assets/Audio/btnClickExit.mp3");
         }); // Remove popup from the root StackPane
 
@@ -687,7 +543,7 @@ public class GamePlayScreen extends Application {
         shopPopupContainer.setStyle("-fx-effect: dropshadow(gaussian, pink, 20, .5, 0, 0);");
 
         // Set background image for popup
-        Image backgroundImage = new Image("/Assets/Images/box.png");
+        Image backgroundImage = assets.acquire("/Assets/Images/box.png");
         BackgroundImage bgImage = new BackgroundImage(
                 backgroundImage,
                 BackgroundRepeat.NO_REPEAT,
@@ -703,6 +559,7 @@ public class GamePlayScreen extends Application {
         closeBtn.setOnMouseClicked(event -> {
             root.getChildren().remove(shopPopupContainer);
             isShopOpen = false;
+            releasePopupImages();
         });
 
         Font customFont = Font.loadFont(getClass().getResourceAsStream("Assets/fonts/PixelifySans-SemiBold.ttf"), 45);
@@ -721,12 +578,9 @@ public class GamePlayScreen extends Application {
         shopItemsContainer.setHgap(10);
         shopItemsContainer.setVgap(10);
 
-        // Add shop items
-        String[] itemCategories = { "food1", "food2", "food3", "food4", "food5", "food6", "food7", "food8", "food9",
-                "food10", "bath1", "bath2", "bath3", "bath4", "bath5", "fun1", "fun2", "fun3", "fun4", "fun5", "sleep1",
-                "sleep2", "sleep3", "sleep4", "sleep5", "gift1", "gift2", "gift3", "gift4", "gift5" };
-        for (String item : itemCategories) {
-            StackPane itemPane = createShopItemPane(item, root, stage);
+        // Add shop items, one for every item in the catalog
+        for (int itemId = 0; itemId < ItemRegistry.getCatalogSize(); itemId++) {
+            StackPane itemPane = createShopItemPane(itemId, root, stage);
             shopItemsContainer.getChildren().add(itemPane);
         }
 
@@ -743,16 +597,32 @@ public class GamePlayScreen extends Application {
         root.getChildren().add(shopPopupContainer);
     }
 
+    /**
+     * Release the images a popup acquired, which are only needed while it is
+     * open: the box behind it, its close button and any others it shows
+     * 
+     * @param otherImagePaths The paths of the popup's other images
+     */
+    private void releasePopupImages(String... otherImagePaths) {
+        assets.release("Assets/Images/box.png");
+        assets.release("Assets/Buttons/closebtn.png");
+        assets.release("Assets/Buttons/closebtn_pressed.png");
+        for (String path : otherImagePaths) {
+            assets.release(path);
+        }
+    }
+
     // Method to create a shop item pane
     
-    private StackPane createShopItemPane(String item, StackPane root, Stage stage) {
+    private StackPane createShopItemPane(int itemId, StackPane root, Stage stage) {
         StackPane itemPane = new StackPane();
+        String item = ItemRegistry.getName(itemId);
 
-        // Image for the slot
-        ImageView slotImage = createImageView("Assets/Images/shopItemContainer.png", 50, 50);
+        // Image for the slot, drawn from the icon atlas
+        ImageView slotImage = iconAtlas.createIcon("Assets/Images/shopItemContainer.png", 50, 50);
 
         // Image for the item
-        ImageView itemImage = createImageView("Assets/Inventory/" + item + ".png", 35, 35);
+        ImageView itemImage = iconAtlas.createIcon("Assets/Inventory/" + item + ".png", 35, 35);
 
         // Quantity label
         // Label quantityLabel = new Label("x1"); // Buying 1 at a time
@@ -769,8 +639,9 @@ public class GamePlayScreen extends Application {
         // Mouse click event to purchase the item
         itemPane.setOnMouseClicked(event -> {
             System.out.println("Item bought: " + item);
-            inventory.addItem(item, 1); // Add item to inventory
-            inventory.display();
+            simulation.buyItem(itemId); // Add item to inventory
+            simulation.getInventory().display();
+            journalAction("purchase");
         });
 
         itemPane.setOnMouseEntered(event -> {
@@ -811,8 +682,10 @@ public class GamePlayScreen extends Application {
         // Media sound = new Media(mediaPath);
         // MediaPlayer mediaPlayer = new MediaPlayer(sound);
 
-        // Create ImageView
+        // Create ImageView, both images are decoded once and swapped on press
         ImageView button = createImageView(defaultImagePath, width, height);
+        Image defaultImage = button.getImage();
+        Image pressedImage = assets.acquire(pressedImagePath);
 
         // Add mouse events
         button.setOnMousePressed(event -> {
@@ -822,13 +695,13 @@ public class GamePlayScreen extends Application {
             }
 
             // Change to pressed image
-            button.setImage(new Image(pressedImagePath));
+            button.setImage(pressedImage);
             button.setCursor(Cursor.HAND);
             // mediaPlayer.play(); // Play the sound
 
             if (defaultImagePath.contains("homebtn")) {
                 System.out.println("Home button clicked");
-                stopStatDecreaseTimers(); // Stop the timers before switching scenes
+                endSession(); // Stop the timers and background work before switching scenes
                 // Go back to the main menu
                 try {
                     Scene mainMenuScene = new MainMenuScreen().getScene(stage);
@@ -866,7 +739,7 @@ public class GamePlayScreen extends Application {
 
                 pause.setOnFinished(pauseEvent -> {
                     // Code to run after the delay (scene change)
-                    stopStatDecreaseTimers(); // Stop the timers before switching scenes
+                    endSession(); // Stop the timers and background work before switching scenes
                     try {
                         Scene gameOverScene = new GameOverScreen().getScene(stage);
                         stage.setScene(gameOverScene);
@@ -886,7 +759,7 @@ public class GamePlayScreen extends Application {
                 PauseTransition pause = new PauseTransition(Duration.seconds(0.3)); // Adjust the delay time as needed
 
                 pause.setOnFinished(pauseEvent -> {
-                    stopStatDecreaseTimers(); // Stop the timers before switching scenes
+                    pauseSession(stage); // The game scene is kept to come back to, only pause it
                     // Code to run after the delay (scene change)
                     try {
                         Scene settingsScene = new SettingsScreen().getScene(stage);
@@ -908,7 +781,7 @@ public class GamePlayScreen extends Application {
                 PauseTransition pause = new PauseTransition(Duration.seconds(0.3)); // Adjust the delay time as needed
 
                 pause.setOnFinished(pauseEvent -> {
-                    stopStatDecreaseTimers(); // Stop the timers before switching scenes
+                    pauseSession(stage); // The game scene is kept to come back to, only pause it
                     // Code to run after the delay (scene change)
                     try {
                         Scene tutorialScene = new ChoosePetTutorialScreen().getScene(stage);
@@ -941,7 +814,7 @@ public class GamePlayScreen extends Application {
 
         }); // Change to default image
         button.setOnMouseReleased(event -> {
-            button.setImage(new Image(defaultImagePath));
+            button.setImage(defaultImage);
             button.setCursor(Cursor.DEFAULT);
         }); // Revert to default image
         button.setOnMouseEntered(event -> button.setCursor(Cursor.HAND)); // Change to hand cursor
@@ -1004,23 +877,19 @@ public class GamePlayScreen extends Application {
     }
 
     /**
-     * Load an image from the specified base path and image name
+     * Load an animation from the species' sprites
      * 
-     * @param basePath  The base path to the image
-     * @param imageName The name of the image
-     * @param formats   The supported formats
-     * @return The image
+     * @param path The sprite path from the species descriptor
+     * @return The animation, a single frame for a still image, or null if it
+     *         could not be read
      */
-    private Image loadImage(String basePath, String imageName, String[] formats) {
-        for (String format : formats) {
-            try {
-                return new Image(basePath + imageName + format);
-            } catch (Exception e) {
-                // Silently ignore and try the next format
-            }
+    private SpriteAnimation loadAnimation(String path) {
+        try {
+            return SpriteAnimation.get(path);
+        } catch (IllegalArgumentException e) {
+            System.err.println("No sprite found: " + e.getMessage());
+            return null;
         }
-        System.err.println("No sprite found for " + imageName);
-        return null;
     }
 
     /**
@@ -1029,19 +898,19 @@ public class GamePlayScreen extends Application {
      * @param gameContent     The game content
      * @param inventory       The inventory
      * @param animationPath   The path to the animation
-     * @param defaultSprite   The default sprite
+     * @param defaultSprite   The default sprite, the animation plays on it
      * @param durationSeconds The duration of the animation
      */
     private void playAnimation(StackPane gameContent, FlowPane inventory, AnchorPane uiButtons, String animationPath,
             ImageView defaultSprite,
             double durationSeconds) {
         isAnimationRunning = true; // Mark animation as running
-        ImageView animateSprite = createImageView(animationPath, 300, 300);
-        animateSprite.setTranslateX(0);
-        animateSprite.setTranslateY(150);
+        try {
+            animator.play(defaultSprite, SpriteAnimation.get(animationPath));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage()); // Keep showing the idle sprite
+        }
 
-        gameContent.getChildren().remove(defaultSprite); // Remove the original sprite
-        gameContent.getChildren().add(animateSprite);
         gameContent.setStyle("-fx-background-color: rgba(0, 0, 0, 0.5);");
         uiButtons.setStyle("-fx-background-color: rgba(0, 0, 0, 0.5);");
         inventory.setDisable(true); // Disable inventory while animation is playing
@@ -1052,10 +921,9 @@ public class GamePlayScreen extends Application {
                         e -> {
                             gameContent.setStyle("-fx-background-color: rgba(0, 0, 0, 0);");
                             uiButtons.setStyle("-fx-background-color: rgba(0, 0, 0, 0);");
-                            defaultSprite.setTranslateX(0);
-                            defaultSprite.setTranslateY(150);
-                            gameContent.getChildren().remove(animateSprite); // Remove animation
-                            gameContent.getChildren().add(defaultSprite); // Add original
+                            if (idleAnimation != null) {
+                                animator.play(defaultSprite, idleAnimation); // Back to the idle sprite
+                            }
                             inventory.setDisable(false); // Enable inventory
                             isAnimationRunning = false; // Mark animation as finished
                         }))
@@ -1076,16 +944,17 @@ public class GamePlayScreen extends Application {
             try {
                 StackPane itemPane = new StackPane();
 
-                // Create and configure empty slot
-                ImageView emptySlot = createImageView("Assets/Inventory/empty_slot.png", 50, 50);
+                // Create and configure empty slot, drawn from the icon atlas
+                ImageView emptySlot = iconAtlas.createIcon("Assets/Inventory/empty_slot.png", 50, 50);
 
                 // Create and configure item image
-                ImageView itemImage = createImageView("Assets/Inventory/" + category + i + ".png", 30, 30);
+                ImageView itemImage = iconAtlas.createIcon("Assets/Inventory/" + category + i + ".png", 30, 30);
 
                 // ============ MOUSE HOVER EFFECTS FOR INVENTORY ITEMS ============
 
                 Label quantityLabel = new Label();
                 final int index = i;
+                final int itemId = ItemRegistry.getId(category + i); // Looked up once, not on every click
 
                 itemPane.setOnMouseEntered(event -> {
                     itemImage.setScaleX(1.5); // Scale up
@@ -1093,7 +962,7 @@ public class GamePlayScreen extends Application {
                     itemImage.setCursor(Cursor.HAND); // Change to hand cursor
 
                     // add a pop up to show the quantity of that item
-                    int itemQuantity = inventory.getItemQuantity(category + index);
+                    int itemQuantity = simulation.getInventory().getQuantity(itemId);
                     quantityLabel.setText("Remaining: x" + itemQuantity);
                     Font customFont = Font
                             .loadFont(getClass().getResourceAsStream("Assets/fonts/PixelifySans-SemiBold.ttf"), 35);
@@ -1130,201 +999,27 @@ public class GamePlayScreen extends Application {
                     }
 
                     System.out.println("Item clicked: " + category + " " + index);
-                    switch (category) {
-                        case "food":
-                            if (inventory.getItemQuantity(category + index) > 0) {
-                                if (my_pet.getType().equals("pegasus")) {
-                                    my_pet.increaseHunger(3);
-
-                                    inventory.removeItem(category + index, 1);
-
-                                    playerLevel++; // Increase level
-                                } else if (my_pet.getType().equals("phoenix")) {
-                                    my_pet.increaseHunger(5);
-
-                                    inventory.removeItem(category + index, 1);
-
-                                    playerLevel++; // Increase level
-
-                                } else if (my_pet.getType().equals("dragon")) {
-                                    my_pet.increaseHunger(1);
-
-                                    inventory.removeItem(category + index, 1);
-
-                                    playerLevel++; // Increase level
-                                }
-                                System.out.println("User level: " + playerLevel);
-                                System.out.println("Pet has been fed, current hunger: " + my_pet.getHunger());
-
-                                try {
-                                    playAnimation(
-                                            gameContent,
-                                            inventoryPane,
-                                            uiButtons,
-                                            "Assets/Sprites/" + petType + "_eat.gif",
-                                            defaultSprite,
-                                            4);
-
-                                } catch (IndexOutOfBoundsException e) {
-                                    System.err.println("Index out of bounds exception: " + e.getMessage());
-                                }
-                            } else {
-                                System.out.println("No more food left");
-                            }
-
-                            break;
-                        case "bath":
-                            if (inventory.getItemQuantity(category + index) > 0) {
-                                if (my_pet.getType().equals("pegasus")) {
-                                    my_pet.increaseGrooming(5);
-
-                                    inventory.removeItem(category + index, 1);
-
-                                    playerLevel++; // Increase level
-
-                                } else if (my_pet.getType().equals("phoenix")) {
-                                    my_pet.increaseGrooming(2);
-
-                                    inventory.removeItem(category + index, 1);
-
-                                    playerLevel++; // Increase level
-
-                                } else if (my_pet.getType().equals("dragon")) {
-                                    my_pet.increaseGrooming(3);
-
-                                    inventory.removeItem(category + index, 1);
-
-                                    playerLevel++; // Increase level
-                                }
-                                System.out.println("User level: " + playerLevel);
-                                System.out.println("Pet has been bathed, current cleanliness: " + my_pet.getGrooming());
-                                try {
-                                    playAnimation(
-                                            gameContent,
-                                            inventoryPane,
-                                            uiButtons,
-                                            "Assets/Sprites/" + petType + "_bath.gif",
-                                            defaultSprite,
-                                            5);
-                                } catch (IndexOutOfBoundsException e) {
-                                    System.err.println("Index out of bounds exception: " + e.getMessage());
-                                }
-                            } else {
-                                System.out.println("No more bath items left");
-                            }
-                            break;
-                        case "fun":
-                            if (inventory.getItemQuantity(category + index) > 0) {
-                                // If it is the pegasus playing decreases the hunger by 2, sleep by 1, increase
-                                // fun by 2
-                                if (my_pet.getType().equals("pegasus")) {
-                                    my_pet.increaseFun(3);
-                                    my_pet.decreaseHunger(1);
-                                    my_pet.decreaseSleep(1);
-
-                                    inventory.removeItem(category + index, 1);
-                                    inventory.display();
-
-                                    playerLevel++; // Increase level
-
-                                } else if (my_pet.getType().equals("phoenix")) {
-                                    my_pet.increaseFun(2);
-                                    my_pet.decreaseHunger(1);
-                                    my_pet.decreaseSleep(1);
-
-                                    inventory.removeItem(category + index, 1);
-
-                                    playerLevel++; // Increase level
-
-                                } else if (my_pet.getType().equals("dragon")) {
-                                    my_pet.increaseFun(4);
-                                    my_pet.decreaseHunger(1);
-                                    my_pet.decreaseSleep(1);
-
-                                    inventory.removeItem(category + index, 1);
-
-                                    playerLevel++; // Increase level
-                                }
-                                System.out.println("User level: " + playerLevel);
-                                System.out.println("Pet has played, current fun: " + my_pet.getFun());
-                                System.out.println("Pet has played, current hunger: " + my_pet.getHunger());
-                                System.out.println("Pet has played, current sleep: " + my_pet.getSleep());
-                                try {
-                                    playAnimation(
-                                            gameContent,
-                                            inventoryPane,
-                                            uiButtons,
-                                            "Assets/Sprites/" + petType + "_play.gif",
-                                            defaultSprite,
-                                            5);
-                                } catch (IndexOutOfBoundsException e) {
-                                    System.err.println("Index out of bounds exception: " + e.getMessage());
-                                }
-                            } else {
-                                System.out.println("No more fun items left");
-                            }
-                            break;
-                        case "sleep":
-                            if (inventory.getItemQuantity(category + index) > 0) {
-                                my_pet.increaseSleep(3);
-
-                                inventory.removeItem(category + index, 1);
-
-                                playerLevel++; // Increase level
-
-                                System.out.println("User level: " + playerLevel);
-                                System.out.println("Pet has slept, current sleep: " + my_pet.getSleep());
-                                try {
-                                    playAnimation(
-                                            gameContent,
-                                            inventoryPane,
-                                            uiButtons,
-                                            "Assets/Sprites/" + petType + "_sleep.gif",
-                                            defaultSprite,
-                                            5);
-                                } catch (IndexOutOfBoundsException e) {
-                                    System.err.println("Index out of bounds exception: " + e.getMessage());
-                                }
-                            } else {
-                                System.out.println("No more sleep items left");
-                            }
-                            break;
-                        case "gift":
-                            if (inventory.getItemQuantity(category + index) > 0) {
-                                // If the user gives a gift, all the stats are increased to 10
-                                my_pet.setFun(10);
-                                my_pet.setHunger(10);
-                                my_pet.setSleep(10);
-                                my_pet.setGrooming(10);
-
-                                inventory.removeItem(category + index, 1);
-
-                                playerLevel += 2; // Increase level
-
-                                System.out.println("User level: " + playerLevel);
-                                System.out.println("Pet has received a gift, current fun: " + my_pet.getFun());
-                                System.out.println("Pet has received a gift, current hunger: " + my_pet.getHunger());
-                                System.out.println("Pet has received a gift, current sleep: " + my_pet.getSleep());
-                                System.out.println(
-                                        "Pet has received a gift, current cleanliness: " + my_pet.getGrooming());
-                                try {
-                                    playAnimation(
-                                            gameContent,
-                                            inventoryPane,
-                                            uiButtons,
-                                            "Assets/Sprites/" + petType + "_play.gif",
-                                            defaultSprite,
-                                            5);
-                                } catch (IndexOutOfBoundsException e) {
-                                    System.err.println("Index out of bounds exception: " + e.getMessage());
-                                }
-                            } else {
-                                System.out.println("No more gift items left");
-                            }
-                            break;
+                    ItemEffect effect = simulation.useItem(itemId);
+                    if (effect == null) {
+                        System.out.println("No more " + category + " items left");
+                        return;
+                    }
 
-                        default:
-                            break;
+                    System.out.println("User level: " + simulation.getPlayerLevel());
+                    System.out.println("Pet used " + category + ", current hunger: " + simulation.getPet().getHunger()
+                            + ", fun: " + simulation.getPet().getFun() + ", sleep: " + simulation.getPet().getSleep()
+                            + ", cleanliness: " + simulation.getPet().getGrooming());
+                    journalAction(effect.getAction());
+                    try {
+                        playAnimation(
+                                gameContent,
+                                inventoryPane,
+                                uiButtons,
+                                simulation.getSpecies().getSprite(effect.getSprite()),
+                                defaultSprite,
+                                effect.getDuration());
+                    } catch (IndexOutOfBoundsException e) {
+                        System.err.println("Index out of bounds exception: " + e.getMessage());
                     }
                     // playSound("Assets/Audio/itemClick.mp3");
                 });
@@ -1349,7 +1044,7 @@ public class GamePlayScreen extends Application {
      * @return The image view
      */
     private ImageView createImageView(String imagePath, double width, double height) {
-        ImageView imageView = new ImageView(new Image(imagePath));
+        ImageView imageView = new ImageView(assets.acquire(imagePath));
         imageView.setFitWidth(width);
         imageView.setFitHeight(height);
         imageView.setPreserveRatio(true);
@@ -1385,10 +1080,7 @@ public class GamePlayScreen extends Application {
         for (int n = 1; n <= 8; n++) {
             try {
 
-                ImageView empty_slot = new ImageView(new Image("Assets/Inventory/empty_slot" + ".png"));
-                empty_slot.setFitWidth(50);
-                empty_slot.setFitHeight(50);
-                empty_slot.setPreserveRatio(true);
+                ImageView empty_slot = iconAtlas.createIcon("Assets/Inventory/empty_slot.png", 50, 50);
 
                 inventoryPane.getChildren().add(empty_slot);
             } catch (Exception e) {
@@ -1428,122 +1120,162 @@ public class GamePlayScreen extends Application {
      * 
      */
     private void startStatDecreaseTimers(Stage stage) {
-        int hungerInterval, funInterval, groomingInterval, sleepInterval;
-
-        // Set intervals based on the pet type
-        switch (my_pet.getType().toLowerCase()) {
-            case "pegasus":
-                hungerInterval = 30; // Hunger decreases every 30 seconds for Pegasus
-                funInterval = 25; // Fun decreases every 20 seconds for Pegasus
-                groomingInterval = 10; // Grooming decreases every 25 seconds for Pegasus
-                sleepInterval = 35; // Sleep decreases every 30 seconds for Pegasus
+        simulation.setTimeScale(Double.parseDouble(System.getProperty(SimulationLoop.TIME_SCALE_PROPERTY, "1")));
+
+        // Timeline that feeds wall-clock time to the simulation every step
+        simulationTimeline = new Timeline(new KeyFrame(Duration.seconds(SimulationLoop.TIMESTEP),
+                event -> simulation.advance(SimulationLoop.TIMESTEP)));
+        simulationTimeline.setCycleCount(Timeline.INDEFINITE); // Repeat indefinitely
+        simulationTimeline.play(); // Start the timeline
+
+        // Decay intervals come from the pet's species, see Assets/Data/species.json.
+        // Set last, a pet that is already at 0 everywhere goes to game over right away
+        simulation.setListener(new PetSimulation.Listener() {
+            @Override
+            public void onDecay(int changedStats) {
+                journalAction("decay");
+            }
+
+            @Override
+            public void onStatLow(int stat, int value) {
+                printStatWarning(stat, false);
+            }
+
+            @Override
+            public void onStatEmpty(int stat) {
+                printStatWarning(stat, true);
+            }
+
+            @Override
+            public void onGameOver() {
+                handleGameOver(stage);
+            }
+        });
+    }
+
+    /**
+     * Print a warning when a stat becomes low or reaches 0
+     * 
+     * @param stat  The bit of the stat
+     * @param empty true if the stat reached 0, false if it became low
+     */
+    private void printStatWarning(int stat, boolean empty) {
+        switch (stat) {
+            case Pet.HUNGER:
+                System.out.println(empty ? "HUNGER IS AT 0: Pet needs food to survive!" : "Pet is starving! FEED IT!");
                 break;
-            case "dragon":
-                hungerInterval = 15; // Hunger decreases every 15 seconds for dragon
-                funInterval = 40; // Fun decreases every 30 seconds for dragon
-                groomingInterval = 25; // Grooming decreases every 35 seconds for dragon
-                sleepInterval = 35; // Sleep decreases every 45 seconds for dragon
+            case Pet.FUN:
+                System.out.println(empty ? "FUN IS AT 0: Pet needs to play to survive!" : "Pet is unhappy! Needs attention.");
                 break;
-            case "phoenix":
-                hungerInterval = 40; // Hunger decreases every 20 seconds for phoenix
-                funInterval = 15; // Fun decreases every 40 seconds for phoenix
-                groomingInterval = 15; // Grooming decreases every 45 seconds for phoenix
-                sleepInterval = 35; // Sleep decreases every 50 seconds for phoenix
+            case Pet.GROOMING:
+                System.out.println(empty ? "GROOMING IS AT 0: Pet needs to bathe to survive!" : "Pet needs grooming!");
                 break;
-            default:
-                hungerInterval = 35; // Default interval if pet type is not recognized
-                funInterval = 35;
-                groomingInterval = 35;
-                sleepInterval = 35;
+            case Pet.SLEEP:
+                System.out.println(empty ? "SLEEP IS AT 0: Pet needs sleep to survive!" : "Pet is very tired! Put it to sleep.");
                 break;
         }
+    }
 
-        // Timeline for hunger decreasing
-        hungerTimeline = new Timeline(new KeyFrame(Duration.seconds(hungerInterval), event -> {
-            my_pet.decreaseHunger(1);
-            System.out.println("Hunger decreased: " + my_pet.getHunger());
-            checkStatsAndHandleGameOver(stage); // Check if game over conditions are met
-
-            // Optionally, check if hunger is too low and handle game over conditions
-            if (my_pet.getHunger() == 0) {
-                System.out.println("HUNGER IS AT 0: Pet needs food to survive!");
-            } else if (my_pet.getHunger() <= 3) {
-                System.out.println("Pet is starving! FEED IT!");
-            }
-        }));
-        hungerTimeline.setCycleCount(Timeline.INDEFINITE); // Repeat indefinitely
-        hungerTimeline.play(); // Start the timeline
-
-        // Timeline for fun decreasing
-        funTimeline = new Timeline(new KeyFrame(Duration.seconds(funInterval), event -> {
-            my_pet.decreaseFun(1);
-            System.out.println("Fun decreased: " + my_pet.getFun());
-            checkStatsAndHandleGameOver(stage); // Check if game over conditions are met
-
-            // Optionally, check if fun is too low and handle unhappy pet conditions
-            if (my_pet.getFun() == 0) {
-                System.out.println("FUN IS AT 0: Pet needs to play to survive!");
-            } else if (my_pet.getFun() <= 3) {
-                System.out.println("Pet is unhappy! Needs attention.");
-            }
-        }));
-        funTimeline.setCycleCount(Timeline.INDEFINITE); // Repeat indefinitely
-        funTimeline.play(); // Start the timeline
-
-        // Timeline for grooming decreasing
-        groomingTimeline = new Timeline(new KeyFrame(Duration.seconds(groomingInterval), event -> {
-            my_pet.decreaseGrooming(1);
-            System.out.println("Grooming decreased: " + my_pet.getGrooming());
-            checkStatsAndHandleGameOver(stage); // Check if game over conditions are met
-
-            // Optionally, check if grooming is too low and handle pet hygiene conditions
-            if (my_pet.getHunger() == 0) {
-                System.out.println("GROOMING IS AT 0: Pet needs to bathe to survive!");
-            } else if (my_pet.getGrooming() <= 3) {
-                System.out.println("Pet needs grooming!");
-            }
-        }));
-        groomingTimeline.setCycleCount(Timeline.INDEFINITE); // Repeat indefinitely
-        groomingTimeline.play(); // Start the timeline
-
-        // Timeline for sleep decreasing
-        sleepTimeline = new Timeline(new KeyFrame(Duration.seconds(sleepInterval), event -> {
-            my_pet.decreaseSleep(1);
-            System.out.println("Sleep decreased: " + my_pet.getSleep());
-            checkStatsAndHandleGameOver(stage); // Check if game over conditions are met
-
-            // Optionally, check if sleep is too low and handle tired pet conditions
-            if (my_pet.getHunger() == 0) {
-                System.out.println("SLEEP IS AT 0: Pet needs sleep to survive!");
-            } else if (my_pet.getSleep() <= 3) {
-                System.out.println("Pet is very tired! Put it to sleep.");
-            }
-        }));
-        sleepTimeline.setCycleCount(Timeline.INDEFINITE); // Repeat indefinitely
-        sleepTimeline.play(); // Start the timeline
+    /**
+     * Pause the stat decay, e.g. while the game is not being played
+     */
+    public void pauseSimulation() {
+        if (simulation != null) {
+            simulation.pause();
+        }
+    }
+
+    /**
+     * Resume the stat decay after pauseSimulation
+     */
+    public void resumeSimulation() {
+        if (simulation != null) {
+            simulation.resume();
+        }
     }
 
-    // Method to check if all stats are at 0 and handle game over conditions
-    private void checkStatsAndHandleGameOver(Stage stage) {
-        if (my_pet.getHunger() == 0 && my_pet.getFun() == 0 && my_pet.getGrooming() == 0 && my_pet.getSleep() == 0) {
-            System.out.println("All stats are at 0. Game Over!");
+    // Method to switch to the game over screen once all stats are at 0
+    private void handleGameOver(Stage stage) {
+        System.out.println("All stats are at 0. Game Over!");
 
-            // Create a PauseTransition to add a delay before switching the scene
-            PauseTransition pause = new PauseTransition(Duration.seconds(0.3));
+        // Create a PauseTransition to add a delay before switching the scene
+        PauseTransition pause = new PauseTransition(Duration.seconds(0.3));
 
-            pause.setOnFinished(pauseEvent -> {
-                stopStatDecreaseTimers(); // Stop the timers before switching scenes
-                try {
-                    Scene gameOverScene = new GameOverScreen().getScene(stage);
-                    stage.setScene(gameOverScene);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            });
+        pause.setOnFinished(pauseEvent -> {
+            endSession(); // Stop the timers and background work before switching scenes
+            try {
+                Scene gameOverScene = new GameOverScreen().getScene(stage);
+                stage.setScene(gameOverScene);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+
+        // Play the pause to execute the scene transition after a delay
+        pause.play();
+    }
+
+    /**
+     * Record the pet stats, level and inventory items that changed since the
+     * last record in the save journal and schedule an autosave
+     * 
+     * @param action The action that changed the state
+     */
+    private void journalAction(String action) {
+        SaveJournal.Entry entry = simulation.takeChanges(action);
 
-            // Play the pause to execute the scene transition after a delay
-            pause.play();
+        // Nothing changed, e.g. decay of a stat that is already 0
+        if (entry.isEmpty()) {
+            return;
         }
+        autosave.record(saveId, entry);
+    }
+
+    /**
+     * End the game session
+     * 
+     * Stops the stat decrease timers and the autosave, which writes any unsaved
+     * changes and stops the journal compactor in the background, and finishes
+     * the session recording
+     */
+    private void endSession() {
+        stopStatDecreaseTimers();
+        animator.stopAll();
+        autosave.close();
+        System.out.println(AssetManager.getInstance().getStats());
+        if (recorder != null) {
+            recorder.finish(simulation);
+            recorder = null;
+        }
+    }
+
+    /**
+     * Pause the session while the settings or a tutorial is shown over the
+     * game
+     * 
+     * Decay and the pet's animation stop, the autosave and the recording keep
+     * going, and the session resumes when the stage shows the game scene
+     * again.
+     * 
+     * @param stage The stage showing the game scene
+     */
+    private void pauseSession(Stage stage) {
+        Scene gameScene = stage.getScene();
+        if (simulationTimeline != null)
+            simulationTimeline.pause();
+        animator.pause();
+
+        stage.sceneProperty().addListener(new ChangeListener<Scene>() {
+            @Override
+            public void changed(ObservableValue<? extends Scene> observable, Scene oldScene, Scene newScene) {
+                if (newScene == gameScene) {
+                    stage.sceneProperty().removeListener(this);
+                    if (simulationTimeline != null)
+                        simulationTimeline.play();
+                    animator.resume();
+                }
+            }
+        });
     }
 
     /**
@@ -1551,14 +1283,8 @@ public class GamePlayScreen extends Application {
      * 
      */
     private void stopStatDecreaseTimers() {
-        if (hungerTimeline != null)
-            hungerTimeline.stop();
-        if (funTimeline != null)
-            funTimeline.stop();
-        if (groomingTimeline != null)
-            groomingTimeline.stop();
-        if (sleepTimeline != null)
-            sleepTimeline.stop();
+        if (simulationTimeline != null)
+            simulationTimeline.stop();
     }
 
     /* ================ GETTERS AND SETTERS ================= */
@@ -1578,7 +1304,7 @@ public class GamePlayScreen extends Application {
      * @return
      */
     public Pet getMyPet() {
-        return my_pet;
+        return simulation.getPet();
     }
 
     /**
@@ -1586,7 +1312,7 @@ public class GamePlayScreen extends Application {
      * @return playerLevel
      */
     public int getPlayerLevel() {
-        return playerLevel;
+        return simulation.getPlayerLevel();
     }
 
     /**
@@ -1595,7 +1321,7 @@ public class GamePlayScreen extends Application {
      * @return  username
      */
     public String getUsername() {
-        return username;
+        return simulation.getUsername();
     }
 
     public static void main(String[] args) {
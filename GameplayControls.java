@@ -21,6 +21,7 @@ import javafx.scene.control.Button;
  */
 
 public class GameplayControls extends Application {
+    private final AssetManager.Scope assets = AssetManager.getInstance().newScope(); // Shared images, held while this screen is shown
     private static Scene previousScene;
 
     /**
@@ -82,43 +83,43 @@ public class GameplayControls extends Application {
         G.setTranslateX(350);
         G.setTranslateY(-1120);
 
-        ImageView settingsBoard = new ImageView(new Image("Assets/Inventory/setting_menu.png"));
+        ImageView settingsBoard = new ImageView(assets.acquire("Assets/Inventory/setting_menu.png"));
         settingsBoard.setFitHeight(500);
         settingsBoard.setFitWidth(800);
         settingsBoard.setTranslateX(100);
         settingsBoard.setTranslateY(100);
 
-        ImageView S_key = new ImageView(new Image("Assets/Inventory/S_key.png"));
+        ImageView S_key = new ImageView(assets.acquire("Assets/Inventory/S_key.png"));
         S_key.setFitHeight(150);
         S_key.setFitWidth(150);
         S_key.setTranslateX(200);
         S_key.setTranslateY(-400);
 
-        ImageView F_key = new ImageView(new Image("Assets/Inventory/F_key.png"));
+        ImageView F_key = new ImageView(assets.acquire("Assets/Inventory/F_key.png"));
         F_key.setFitHeight(150);
         F_key.setFitWidth(150);
         F_key.setTranslateX(200);
         F_key.setTranslateY(-490);
 
-        ImageView B_key = new ImageView(new Image("Assets/Inventory/B_key.png"));
+        ImageView B_key = new ImageView(assets.acquire("Assets/Inventory/B_key.png"));
         B_key.setFitHeight(150);
         B_key.setFitWidth(150);
         B_key.setTranslateX(200);
         B_key.setTranslateY(-580);
 
-        ImageView P_key = new ImageView(new Image("Assets/Inventory/P_key.png"));
+        ImageView P_key = new ImageView(assets.acquire("Assets/Inventory/P_key.png"));
         P_key.setFitHeight(150);
         P_key.setFitWidth(150);
         P_key.setTranslateX(200);
         P_key.setTranslateY(-670);
 
-        ImageView G_key = new ImageView(new Image("Assets/Inventory/G_key.png"));
+        ImageView G_key = new ImageView(assets.acquire("Assets/Inventory/G_key.png"));
         G_key.setFitHeight(150);
         G_key.setFitWidth(150);
         G_key.setTranslateX(200);
         G_key.setTranslateY(-760);
 
-        Image closeImage = new Image("Assets/Buttons/closebtn.png");
+        Image closeImage = assets.acquire("Assets/Buttons/closebtn.png");
         ImageView closeIcon = new ImageView(closeImage);
         closeIcon.setFitHeight(50);
         closeIcon.setFitWidth(50);
@@ -137,6 +138,7 @@ public class GameplayControls extends Application {
         layout.getChildren().addAll(page_title, settingsBoard, S_key, F_key, B_key, P_key, G_key, S, F, B, P, G, close);
 
         Scene scene = new Scene(layout, 1000, 800);
+        assets.holdWhileShown(stage, scene); // Release the images once the scene is replaced
         scene.getStylesheets().add(getClass().getResource("Styles/SettingsScreen.css").toExternalForm());
         stage.setResizable(false);
         return scene;
@@ -0,0 +1,323 @@
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import javax.imageio.ImageIO;
+
+/**
+ * IconAtlas packs the inventory and shop icons into one image sheet, so the
+ * gameplay screen decodes a single image instead of one PNG per item and slot.
+ *
+ * The source icons are up to 500 pixels wide but are shown at 50 pixels or
+ * less, so each one is scaled down to fit a CELL_SIZE square and drawn into
+ * the next cell of the sheet, inset by CELL_PADDING transparent pixels so a
+ * scaled or filtered view never samples the neighbouring icon. The sheet and
+ * an index of where each icon sits are written to savedata/cache the first
+ * time the game runs, each through a temporary file that is moved into place,
+ * so a crash never leaves a half written sheet behind. Later runs read them
+ * back, and build them again only if the list of icons or the content of a
+ * source icon changed.
+ *
+ * An icon is shown as an ImageView of the shared sheet with its viewport set
+ * to the icon's rectangle. An icon that is not in the atlas, or any icon if
+ * the atlas could not be built, is loaded from its own file through the
+ * AssetManager instead. The atlas holds those images as long as it holds the
+ * sheet, taking one reference to each.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class IconAtlas {
+    public static final int CELL_SIZE = 96; // Twice the largest size an icon is shown at
+    private static final int COLUMNS = 8;
+    private static final int CELL_PADDING = 2; // Transparent pixels around each icon
+    private static final int VERSION = 3; // Version 1 has no padding between cells, version 2 keys icons on size
+    private static final File CACHE_DIRECTORY = new File("savedata/cache");
+    private static final File SHEET_FILE = new File(CACHE_DIRECTORY, "icon_atlas.png");
+    private static final File INDEX_FILE = new File(CACHE_DIRECTORY, "icon_atlas.json");
+
+    private static IconAtlas instance;
+
+    private final Map<String, Rectangle2D> icons = new HashMap<>();
+    private final Map<String, Image> fallbacks = new HashMap<>(); // Icons loaded from their own file
+    private final Image sheet;
+
+    /**
+     * Get the shared atlas of the inventory and shop icons, loading or
+     * building it on first use
+     *
+     * @return The shared atlas
+     */
+    public static synchronized IconAtlas getInstance() {
+        if (instance == null) {
+            instance = new IconAtlas(inventoryIcons());
+        }
+        return instance;
+    }
+
+    /**
+     * Load the atlas from the cache, or build it if the cache is missing or out
+     * of date
+     *
+     * @param paths The icon paths under Assets
+     */
+    private IconAtlas(List<String> paths) {
+        Image loaded = null;
+        try {
+            Map<String, long[]> index = readIndex(paths);
+            if (index == null) {
+                long start = System.nanoTime();
+                index = build(paths);
+                System.out.printf("Built the icon atlas of %d icons in %.1f ms%n", index.size(),
+                        (System.nanoTime() - start) / 1e6);
+            }
+            for (Map.Entry<String, long[]> icon : index.entrySet()) {
+                long[] cell = icon.getValue();
+                icons.put(icon.getKey(), new Rectangle2D(cell[0], cell[1], cell[2], cell[3]));
+            }
+            loaded = new Image(SHEET_FILE.toURI().toString());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to load the icon atlas, icons are loaded one by one: " + e.getMessage());
+            e.printStackTrace();
+            icons.clear();
+        }
+        this.sheet = loaded;
+    }
+
+    /**
+     * Create a view of an icon
+     *
+     * @param path   The icon path, e.g. "Assets/Inventory/food1.png"
+     * @param width  The width to fit the icon in
+     * @param height The height to fit the icon in
+     * @return The image view
+     */
+    public ImageView createIcon(String path, double width, double height) {
+        Rectangle2D viewport = icons.get(path);
+        ImageView icon;
+        if (viewport != null) {
+            icon = new ImageView(sheet);
+            icon.setViewport(viewport);
+        } else {
+            icon = new ImageView(fallbackIcon(path));
+        }
+        icon.setFitWidth(width);
+        icon.setFitHeight(height);
+        icon.setPreserveRatio(true);
+        return icon;
+    }
+
+    /**
+     * Get an icon that is not in the atlas, acquiring it the first time
+     */
+    private synchronized Image fallbackIcon(String path) {
+        Image image = fallbacks.get(path);
+        if (image == null) {
+            image = AssetManager.getInstance().acquire(path);
+            fallbacks.put(path, image);
+        }
+        return image;
+    }
+
+    /**
+     * @param path The icon path
+     * @return true if the icon is drawn from the atlas
+     */
+    public boolean contains(String path) {
+        return icons.containsKey(path);
+    }
+
+    /**
+     * The icons in the atlas: every catalog item, the inventory slot and the
+     * shop slot
+     *
+     * @return The icon paths
+     */
+    static List<String> inventoryIcons() {
+        List<String> paths = new ArrayList<>();
+        for (int itemId = 0; itemId < ItemRegistry.getCatalogSize(); itemId++) {
+            paths.add("Assets/Inventory/" + ItemRegistry.getName(itemId) + ".png");
+        }
+        paths.add("Assets/Inventory/empty_slot.png");
+        paths.add("Assets/Images/shopItemContainer.png");
+        return paths;
+    }
+
+    /**
+     * Read the cached index if it matches the icons
+     *
+     * @param paths The icon paths
+     * @return The rectangle of each icon, or null if the cache
+     *         is missing or out of date
+     */
+    private static Map<String, long[]> readIndex(List<String> paths) throws IOException {
+        if (!SHEET_FILE.exists() || !INDEX_FILE.exists()) {
+            return null;
+        }
+        JSONObject index;
+        try (FileReader reader = new FileReader(INDEX_FILE)) {
+            index = (JSONObject) new JSONParser().parse(reader);
+        } catch (Exception e) {
+            System.err.println("Icon atlas index is unreadable, building it again: " + e.getMessage());
+            return null;
+        }
+        Object version = index.get("version");
+        Object cellSize = index.get("cell_size");
+        JSONObject cachedIcons = (JSONObject) index.get("icons");
+        if (!Long.valueOf(VERSION).equals(version) || !Long.valueOf(CELL_SIZE).equals(cellSize)
+                || cachedIcons == null) {
+            return null;
+        }
+
+        Map<String, long[]> icons = new HashMap<>();
+        for (String path : paths) {
+            JSONArray cell = (JSONArray) cachedIcons.get(path);
+            if (cell == null) {
+                if (sourceChecksum(path) != -1) {
+                    return null; // A new icon
+                }
+                continue; // Still missing, it was left out of the sheet
+            }
+            if (cell.size() != 5 || (Long) cell.get(4) != sourceChecksum(path)) {
+                return null; // A changed icon
+            }
+            icons.put(path, new long[] { (Long) cell.get(0), (Long) cell.get(1), (Long) cell.get(2),
+                    (Long) cell.get(3) });
+        }
+        // An icon that is no longer used frees its cell on the next build
+        return icons.size() == cachedIcons.size() ? icons : null;
+    }
+
+    /**
+     * Scale every icon into its cell of a new sheet, and write the sheet and
+     * its index to the cache
+     *
+     * @param paths The icon paths
+     * @return The rectangle of each icon
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, long[]> build(List<String> paths) throws IOException {
+        int rows = (paths.size() + COLUMNS - 1) / COLUMNS;
+        BufferedImage sheet = new BufferedImage(COLUMNS * CELL_SIZE, Math.max(1, rows) * CELL_SIZE,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = sheet.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+        Map<String, long[]> icons = new HashMap<>();
+        JSONObject indexIcons = new JSONObject();
+        try {
+            for (int i = 0; i < paths.size(); i++) {
+                String path = paths.get(i);
+                BufferedImage source = readSource(path);
+                if (source == null) {
+                    System.err.println("Icon missing from the atlas: " + path);
+                    continue;
+                }
+
+                // Scale down to fit inside the padding, keeping the aspect ratio, and keep small icons as they are
+                int inner = CELL_SIZE - 2 * CELL_PADDING;
+                double scale = Math.min(1.0, (double) inner / Math.max(source.getWidth(), source.getHeight()));
+                int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+                int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+                int x = (i % COLUMNS) * CELL_SIZE + CELL_PADDING;
+                int y = (i / COLUMNS) * CELL_SIZE + CELL_PADDING;
+                graphics.drawImage(scaleDown(source, width, height), x, y, width, height, null);
+
+                icons.put(path, new long[] { x, y, width, height });
+                JSONArray cell = new JSONArray();
+                cell.add((long) x);
+                cell.add((long) y);
+                cell.add((long) width);
+                cell.add((long) height);
+                cell.add(sourceChecksum(path));
+                indexIcons.put(path, cell);
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        if (!CACHE_DIRECTORY.exists() && !CACHE_DIRECTORY.mkdirs()) {
+            throw new IOException("Could not create " + CACHE_DIRECTORY);
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        if (!ImageIO.write(sheet, "png", png)) {
+            throw new IOException("No PNG writer available");
+        }
+        // The index goes last, so it never describes a sheet that was not fully written
+        ShardedSaveStore.writeAtomically(SHEET_FILE, png.toByteArray());
+        JSONObject index = new JSONObject();
+        index.put("version", (long) VERSION);
+        index.put("cell_size", (long) CELL_SIZE);
+        index.put("icons", indexIcons);
+        ShardedSaveStore.writeAtomically(INDEX_FILE, index.toJSONString());
+        return icons;
+    }
+
+    /**
+     * Halve an image until it is at most twice the target size, so the final
+     * bicubic scale does not skip source pixels
+     */
+    private static BufferedImage scaleDown(BufferedImage image, int width, int height) {
+        while (image.getWidth() > width * 2 || image.getHeight() > height * 2) {
+            int halfWidth = Math.max(width, image.getWidth() / 2);
+            int halfHeight = Math.max(height, image.getHeight() / 2);
+            BufferedImage half = new BufferedImage(halfWidth, halfHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = half.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, halfWidth, halfHeight, null);
+            graphics.dispose();
+            image = half;
+        }
+        return image;
+    }
+
+    private static BufferedImage readSource(String path) throws IOException {
+        URL url = IconAtlas.class.getResource("/" + path);
+        if (url == null) {
+            return null;
+        }
+        try (InputStream in = url.openStream()) {
+            return ImageIO.read(in);
+        }
+    }
+
+    /**
+     * The CRC32 of a source icon's bytes, which tells a changed icon apart
+     * without decoding it, even if its size stayed the same
+     *
+     * @return The checksum, or -1 if the icon is missing
+     */
+    private static long sourceChecksum(String path) throws IOException {
+        URL url = IconAtlas.class.getResource("/" + path);
+        if (url == null) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = url.openStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -1,4 +1,6 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -6,19 +8,30 @@ import org.json.simple.JSONObject;
 /**
  * Inventory class to manage items
  * 
+ * Quantities are kept in an int array indexed by the item ids of the
+ * ItemRegistry, so using an item by id is a plain array access. Items are
+ * kept in the order they were added for display and toJSON
+ * 
  * @author William Du
+ * @author agent
  * @version 1.0
  * @since 1.0
  */
 public class Inventory {
-    private List<InventoryItem> items;
+    private static final int NOT_OWNED = -1;
+
+    private int[] quantities; // Indexed by item id, NOT_OWNED for items not in the inventory
+    private int[] order; // Item ids in the order they were added
+    private int size = 0;
+    private BitSet dirtyItems = new BitSet(); // Ids of the items changed since the last save
 
     /**
      * Constructor to initialize inventory
      */
     public Inventory() {
-        this.items = new ArrayList<>();
-
+        this.quantities = new int[ItemRegistry.getItemCount()];
+        this.order = new int[quantities.length];
+        Arrays.fill(quantities, NOT_OWNED);
     }
 
     /**
@@ -32,20 +45,31 @@ public class Inventory {
             System.err.println("Cannot add item with null or empty name");
             return;
         }
+        addItem(ItemRegistry.register(name), quantity);
+    }
+
+    /**
+     * Method to add an item by its id
+     * 
+     * @param itemId   Id of the item in the ItemRegistry
+     * @param quantity Quantity of the item
+     */
+    public void addItem(int itemId, int quantity) {
+        ensureCapacity(itemId);
 
         // Check if the item already exists
-        for (InventoryItem item : items) {
-            if (item.getName().equalsIgnoreCase(name)) {
-                item.setQuantity(item.getQuantity() + quantity);
-                System.out.println("Updated item: " + item);
-                return;
-            }
+        if (quantities[itemId] != NOT_OWNED) {
+            quantities[itemId] += quantity;
+            dirtyItems.set(itemId);
+            System.out.println("Updated item: " + ItemRegistry.getName(itemId) + " (x" + quantities[itemId] + ")");
+            return;
         }
 
         // If item doesn't exist, add a new one
-        InventoryItem newItem = new InventoryItem(name, quantity);
-        items.add(newItem);
-        System.out.println("Added new item: " + newItem);
+        quantities[itemId] = quantity;
+        order[size++] = itemId;
+        dirtyItems.set(itemId);
+        System.out.println("Added new item: " + ItemRegistry.getName(itemId) + " (x" + quantity + ")");
     }
 
     /**
@@ -56,23 +80,52 @@ public class Inventory {
      * @return true if the item was removed, false otherwise
      */
     public boolean removeItem(String name, int quantity) {
-        for (InventoryItem item : items) {
-            if (item.getName().equalsIgnoreCase(name)) {
-                if (item.getQuantity() >= quantity) {
-                    item.setQuantity(item.getQuantity() - quantity);
-                    return true;
-                }
-                return false; // Not enough quantity
-            }
+        int itemId = name == null ? ItemRegistry.UNKNOWN : ItemRegistry.getId(name);
+        return itemId != ItemRegistry.UNKNOWN && removeItem(itemId, quantity);
+    }
+
+    /**
+     * Method to remove an item by its id
+     * 
+     * @param itemId   Id of the item in the ItemRegistry
+     * @param quantity Quantity of the item to remove
+     * @return true if the item was removed, false otherwise
+     */
+    public boolean removeItem(int itemId, int quantity) {
+        if (getQuantity(itemId) == NOT_OWNED) {
+            return false; // Item not found
+        }
+        if (quantities[itemId] >= quantity) {
+            quantities[itemId] -= quantity;
+            dirtyItems.set(itemId);
+            return true;
         }
-        return false; // Item not found
+        return false; // Not enough quantity
     }
 
     /**
      * Method to clear all items from the inventory
      */
     public void clear() {
-        items.clear();
+        Arrays.fill(quantities, NOT_OWNED);
+        size = 0;
+        dirtyItems.clear();
+    }
+
+    /**
+     * Method to get the ids of the items changed since the last save
+     * 
+     * @return The ids of the changed items
+     */
+    public BitSet getDirtyItems() {
+        return dirtyItems;
+    }
+
+    /**
+     * Method to mark every item as saved
+     */
+    public void clearDirtyItems() {
+        dirtyItems.clear();
     }
 
     /**
@@ -80,17 +133,21 @@ public class Inventory {
      */
     public void display() {
         System.out.println("Inventory:");
-        for (InventoryItem item : items) {
-            System.out.println(" - " + item);
+        for (int i = 0; i < size; i++) {
+            System.out.println(" - " + ItemRegistry.getName(order[i]) + " (x" + quantities[order[i]] + ")");
         }
     }
 
     /**
-     * Method to get the list of items
+     * Method to get a copy of the items, in the order they were added
      * 
      * @return The list of items
      */
     public List<InventoryItem> getItems() {
+        List<InventoryItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new InventoryItem(ItemRegistry.getName(order[i]), quantities[order[i]]));
+        }
         return items;
     }
 
@@ -101,12 +158,17 @@ public class Inventory {
      * @return Quantity of the item, or -1 if the item is not in the inventory
      */
     public int getItemQuantity(String itemName) {
-        for (InventoryItem item : items) {
-            if (item.getName().equalsIgnoreCase(itemName)) {
-                return item.getQuantity();
-            }
-        }
-        return -1; // Item not found
+        return itemName == null ? NOT_OWNED : getQuantity(ItemRegistry.getId(itemName));
+    }
+
+    /**
+     * Method to get the quantity of a specific item by its id
+     * 
+     * @param itemId Id of the item in the ItemRegistry
+     * @return Quantity of the item, or -1 if the item is not in the inventory
+     */
+    public int getQuantity(int itemId) {
+        return itemId >= 0 && itemId < quantities.length ? quantities[itemId] : NOT_OWNED;
     }
 
     /**
@@ -117,10 +179,10 @@ public class Inventory {
     @SuppressWarnings("unchecked")
     public JSONArray toJSON() {
         JSONArray inventoryArray = new JSONArray();
-        for (InventoryItem item : items) {
+        for (int i = 0; i < size; i++) {
             JSONObject itemObject = new JSONObject();
-            itemObject.put("name", item.getName());
-            itemObject.put("quantity", item.getQuantity());
+            itemObject.put("name", ItemRegistry.getName(order[i]));
+            itemObject.put("quantity", quantities[order[i]]);
             inventoryArray.add(itemObject);
         }
         return inventoryArray;
@@ -132,7 +194,7 @@ public class Inventory {
      * @param inventoryArray JSONArray containing inventory items
      */
     public void loadFromJSON(JSONArray inventoryArray) {
-        items.clear(); // Clear existing items
+        clear(); // Clear existing items, the loaded items match the save
 
         for (Object obj : inventoryArray) {
             JSONObject itemObject = (JSONObject) obj;
@@ -147,7 +209,12 @@ public class Inventory {
             if (itemObject.containsKey("quantity")) {
                 int quantity = ((Long) itemObject.get("quantity")).intValue();
                 if (quantity >= 0) {
-                    items.add(new InventoryItem(name, quantity));
+                    int itemId = ItemRegistry.register(name);
+                    ensureCapacity(itemId);
+                    if (quantities[itemId] == NOT_OWNED) {
+                        order[size++] = itemId;
+                    }
+                    quantities[itemId] = quantity;
                 } else {
                     System.err.println("Invalid quantity for item: " + name);
                 }
@@ -157,4 +224,20 @@ public class Inventory {
         }
     }
 
+    /**
+     * Grow the arrays to fit an item registered after the inventory was made
+     * 
+     * @param itemId Id of the item that must fit
+     */
+    private void ensureCapacity(int itemId) {
+        if (itemId < quantities.length) {
+            return;
+        }
+        int oldLength = quantities.length;
+        int newLength = Math.max(itemId + 1, ItemRegistry.getItemCount());
+        quantities = Arrays.copyOf(quantities, newLength);
+        order = Arrays.copyOf(order, newLength);
+        Arrays.fill(quantities, oldLength, newLength, NOT_OWNED);
+    }
+
 }
@@ -0,0 +1,109 @@
+/**
+ * ItemEffect is what using one item does to one species of pet: how much each
+ * stat goes up or down, how many levels the player gains, and which action and
+ * animation go with it.
+ *
+ * Effects are compiled once from the species descriptor by SpeciesRegistry, so
+ * using an item is a table lookup followed by applyTo.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ItemEffect {
+    // Effect of an item that has no entry in the descriptor
+    public static final ItemEffect NONE = new ItemEffect("use", "play", 5, 0, 0, 0, 0, 0);
+
+    private final String action;
+    private final String sprite;
+    private final int duration;
+    private final int hunger;
+    private final int fun;
+    private final int sleep;
+    private final int grooming;
+    private final int level;
+
+    /**
+     * @param action   The journal action name, e.g. "feed"
+     * @param sprite   The sprite action to animate, e.g. "eat"
+     * @param duration Seconds the animation plays for
+     * @param hunger   Change to the hunger stat
+     * @param fun      Change to the fun stat
+     * @param sleep    Change to the sleep stat
+     * @param grooming Change to the grooming stat
+     * @param level    Levels gained
+     */
+    public ItemEffect(String action, String sprite, int duration, int hunger, int fun, int sleep, int grooming,
+            int level) {
+        this.action = action;
+        this.sprite = sprite;
+        this.duration = duration;
+        this.hunger = hunger;
+        this.fun = fun;
+        this.sleep = sleep;
+        this.grooming = grooming;
+        this.level = level;
+    }
+
+    /**
+     * Apply the stat changes to a pet, within the 0-10 range of each stat
+     *
+     * @param pet The pet using the item
+     * @return The number of levels gained
+     */
+    public int applyTo(Pet pet) {
+        if (hunger > 0) {
+            pet.increaseHunger(hunger);
+        } else if (hunger < 0) {
+            pet.decreaseHunger(-hunger);
+        }
+        if (fun > 0) {
+            pet.increaseFun(fun);
+        } else if (fun < 0) {
+            pet.decreaseFun(-fun);
+        }
+        if (sleep > 0) {
+            pet.increaseSleep(sleep);
+        } else if (sleep < 0) {
+            pet.decreaseSleep(-sleep);
+        }
+        if (grooming > 0) {
+            pet.increaseGrooming(grooming);
+        } else if (grooming < 0) {
+            pet.decreaseGrooming(-grooming);
+        }
+        return level;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getSprite() {
+        return sprite;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public int getHunger() {
+        return hunger;
+    }
+
+    public int getFun() {
+        return fun;
+    }
+
+    public int getSleep() {
+        return sleep;
+    }
+
+    public int getGrooming() {
+        return grooming;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ItemRegistry gives every item a dense integer id, so inventories can keep
+ * their quantities in a plain int array indexed by item id.
+ * 
+ * The catalog items (food1..10, bath1..5, fun1..5, sleep1..5, gift1..5) get
+ * the first ids, in that order. Their ids are stored in binary saves, so new
+ * items must only ever be added to the end of the catalog. Items that are not
+ * in the catalog, e.g. from an old save, get an id the first time they are
+ * seen; those ids only last for the current run.
+ * 
+ * Names are looked up without regard to case.
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ItemRegistry {
+    public static final int UNKNOWN = -1;
+
+    // Item categories of the catalog and how many items each has
+    private static final String[] CATEGORIES = { "food", "bath", "fun", "sleep", "gift" };
+    private static final int[] CATEGORY_SIZES = { 10, 5, 5, 5, 5 };
+
+    private static final List<String> names = new ArrayList<>();
+    private static final Map<String, Integer> ids = new HashMap<>(); // Keyed by the lower case item name
+    private static final int catalogSize;
+
+    static {
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            for (int i = 1; i <= CATEGORY_SIZES[c]; i++) {
+                register(CATEGORIES[c] + i);
+            }
+        }
+        catalogSize = names.size();
+    }
+
+    private ItemRegistry() {
+    }
+
+    /**
+     * Get the id of an item
+     * 
+     * @param name The item name
+     * @return The item id, or UNKNOWN if the item was never registered
+     */
+    public static synchronized int getId(String name) {
+        Integer id = ids.get(name.toLowerCase(Locale.ROOT));
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Get the id of an item, registering it if it is new
+     * 
+     * @param name The item name
+     * @return The item id
+     */
+    public static synchronized int register(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            ids.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * Get the name of an item
+     * 
+     * @param id The item id
+     * @return The item name
+     */
+    public static synchronized String getName(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * @return The number of registered items, every id is below this
+     */
+    public static synchronized int getItemCount() {
+        return names.size();
+    }
+
+    /**
+     * @return The number of catalog items, whose ids are stable across runs
+     */
+    public static int getCatalogSize() {
+        return catalogSize;
+    }
+}
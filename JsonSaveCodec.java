@@ -0,0 +1,34 @@
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JsonSaveCodec stores a save as plain JSON text, the original save format.
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class JsonSaveCodec implements SaveCodec {
+
+    @Override
+    public byte[] encode(JSONObject save) {
+        return save.toJSONString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public JSONObject decode(byte[] data) throws IOException {
+        try {
+            return (JSONObject) new JSONParser().parse(new String(data, StandardCharsets.UTF_8));
+        } catch (ParseException | ClassCastException e) {
+            throw new IOException("Invalid JSON save: " + e, e);
+        }
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".json";
+    }
+}
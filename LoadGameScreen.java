@@ -12,16 +12,12 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import java.io.FileReader;
 import java.util.Optional;
 
 /**
  * Load Game screen for the game
  * 
- * Lets the user load a saved game from the json save file
+ * Lets the user load a saved game from the save store
  * and continue playing from where they left off
  * Choose save from the list of saved games
  * 
@@ -33,7 +29,7 @@ import java.util.Optional;
  * @see README.md
  */
 public class LoadGameScreen extends Application {
-    private static final String SAVE_FILE_PATH = "savedata/savefile.json";
+    private final AssetManager.Scope assets = AssetManager.getInstance().newScope(); // Shared images, held while this screen is shown
     private static Scene previousScene;
     Font customFont = Font.loadFont(getClass().getResourceAsStream("Assets/fonts/PixelifySans-SemiBold.ttf"), 15);
 
@@ -61,7 +57,7 @@ public class LoadGameScreen extends Application {
 
         // Set background image
         BackgroundImage backgroundImage = new BackgroundImage(
-                new Image("Assets/Background/dark_sky.png"),
+                assets.acquire("Assets/Background/dark_sky.png"),
                 BackgroundRepeat.NO_REPEAT,
                 BackgroundRepeat.NO_REPEAT,
                 BackgroundPosition.DEFAULT,
@@ -73,11 +69,11 @@ public class LoadGameScreen extends Application {
         root.setTop(topPane);
 
         // Top - Close Button
-        Image closeImage = new Image("Assets/Buttons/closebtn.png");
+        Image closeImage = assets.acquire("Assets/Buttons/closebtn.png");
         ImageView closeBtn = new ImageView(closeImage);
         closeBtn.setFitWidth(30);
         closeBtn.setFitHeight(30);
-        Image closeBtnPressed = new Image("Assets/Buttons/closebtn_pressed.png");
+        Image closeBtnPressed = assets.acquire("Assets/Buttons/closebtn_pressed.png");
 
         closeBtn.setOnMousePressed(event -> {
             stage.setScene(previousScene);
@@ -111,89 +107,80 @@ public class LoadGameScreen extends Application {
 
         // Set up the scene
         Scene scene = new Scene(root, 1000, 800);
+        assets.holdWhileShown(stage, scene); // Release the images once the scene is replaced
         return scene;
     }
 
     /**
-     * Load saved games from the save file and display them in the container
+     * Load saved games from the save store and display them in the container
      * 
      * @param container
      * @param stage
      */
     private void loadSavedGames(VBox container, Stage stage) {
-        JSONParser parser = new JSONParser();
         try {
-            // Parse the save file
-            JSONObject saveData = (JSONObject) parser.parse(new FileReader(SAVE_FILE_PATH));
-            JSONArray saves = (JSONArray) saveData.get("saves");
-
-            if (saves != null) {
-                for (Object obj : saves) {
-                    JSONObject save = (JSONObject) obj;
-
-                    long saveId = (long) save.get("save_id");
-                    String username = (String) save.get("username");
-                    JSONObject petData = (JSONObject) save.get("pet");
-                    String petName = (String) petData.get("name");
-                    String petType = (String) petData.get("type");
-                    JSONObject gameProgress = (JSONObject) save.get("game_progress");
-                    long playerLevel = (long) gameProgress.get("level");
-                    String lastPlayed = (String) gameProgress.get("last_played");
-
-                    // Create a block for each save game
-                    HBox saveBlock = new HBox(15);
-                    saveBlock.setPadding(new Insets(10));
-                    saveBlock.setAlignment(Pos.CENTER_LEFT);
-                    saveBlock.setStyle("-fx-border-color: black; -fx-border-width: 1; -fx-border-radius: 5;");
-
-                    // Pet Image
-                    Image petImage = loadPetImage(petType);
-                    ImageView petImageView = new ImageView(petImage);
-                    petImageView.setFitWidth(80);
-                    petImageView.setFitHeight(80);
-                    petImageView.setPreserveRatio(true);
-
-                    // Save details
-                    VBox saveDetails = new VBox(5);
-                    saveDetails.setAlignment(Pos.CENTER_LEFT);
-
-                    Label usernameLabel = new Label("Username: " + username);
-                    Label petNameLabel = new Label("Pet Name: " + petName);
-                    Label playerLevelLabel = new Label("Player Level: " + playerLevel);
-                    Label lastPlayedLabel = new Label("Last Played: " + lastPlayed);
-                    usernameLabel.setFont(customFont);
-                    petNameLabel.setFont(customFont);
-                    playerLevelLabel.setFont(customFont);
-                    lastPlayedLabel.setFont(customFont);
-
-                    saveDetails.getChildren().addAll(usernameLabel, petNameLabel, playerLevelLabel, lastPlayedLabel);
-
-                    // Add pet image and details to the save block
-                    saveBlock.getChildren().addAll(petImageView, saveDetails);
-
-                    // Make the entire save block clickable
-                    saveBlock.setOnMouseClicked(event -> {
-                        Alert confirmationAlert = new Alert(AlertType.CONFIRMATION);
-                        confirmationAlert.setTitle("Load Game Confirmation");
-                        confirmationAlert.setHeaderText(null);
-                        confirmationAlert.setContentText("Do you want to load this game?");
-
-                        Optional<ButtonType> result = confirmationAlert.showAndWait();
-                        if (result.isPresent() && result.get() == ButtonType.OK) {
-                            GamePlayScreen.setSaveId((int) saveId);
-                            GamePlayScreen gamePlayScreen = new GamePlayScreen();
-                            try {
-                                gamePlayScreen.start(new Stage());
-                                stage.close();
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                            }
+            // Read only the save headers from the save index
+            for (SaveSummary summary : SaveRepository.getInstance().getSaveSummaries()) {
+                int saveId = summary.getSaveId();
+                String username = summary.getUsername();
+                String petName = summary.getPetName();
+                String petType = summary.getPetType();
+                int playerLevel = summary.getLevel();
+                String lastPlayed = summary.getLastPlayed();
+
+                // Create a block for each save game
+                HBox saveBlock = new HBox(15);
+                saveBlock.setPadding(new Insets(10));
+                saveBlock.setAlignment(Pos.CENTER_LEFT);
+                saveBlock.setStyle("-fx-border-color: black; -fx-border-width: 1; -fx-border-radius: 5;");
+
+                // Pet Image
+                Image petImage = loadPetImage(petType);
+                ImageView petImageView = new ImageView(petImage);
+                petImageView.setFitWidth(80);
+                petImageView.setFitHeight(80);
+                petImageView.setPreserveRatio(true);
+
+                // Save details
+                VBox saveDetails = new VBox(5);
+                saveDetails.setAlignment(Pos.CENTER_LEFT);
+
+                Label usernameLabel = new Label("Username: " + username);
+                Label petNameLabel = new Label("Pet Name: " + petName);
+                Label playerLevelLabel = new Label("Player Level: " + playerLevel);
+                Label lastPlayedLabel = new Label("Last Played: " + lastPlayed);
+                usernameLabel.setFont(customFont);
+                petNameLabel.setFont(customFont);
+                playerLevelLabel.setFont(customFont);
+                lastPlayedLabel.setFont(customFont);
+
+                saveDetails.getChildren().addAll(usernameLabel, petNameLabel, playerLevelLabel, lastPlayedLabel);
+
+                // Add pet image and details to the save block
+                saveBlock.getChildren().addAll(petImageView, saveDetails);
+
+                // Make the entire save block clickable
+                saveBlock.setOnMouseClicked(event -> {
+                    Alert confirmationAlert = new Alert(AlertType.CONFIRMATION);
+                    confirmationAlert.setTitle("Load Game Confirmation");
+                    confirmationAlert.setHeaderText(null);
+                    confirmationAlert.setContentText("Do you want to load this game?");
+
+                    Optional<ButtonType> result = confirmationAlert.showAndWait();
+                    if (result.isPresent() && result.get() == ButtonType.OK) {
+                        GamePlayScreen.setSaveId(saveId);
+                        GamePlayScreen gamePlayScreen = new GamePlayScreen();
+                        try {
+                            gamePlayScreen.start(new Stage());
+                            stage.close();
+                        } catch (Exception e) {
+                            e.printStackTrace();
                         }
-                    });
+                    }
+                });
 
-                    // Add save block to the container
-                    container.getChildren().add(saveBlock);
-                }
+                // Add save block to the container
+                container.getChildren().add(saveBlock);
             }
         } catch (Exception e) {
             System.err.println("Failed to load save data: " + e.getMessage());
@@ -210,10 +197,10 @@ public class LoadGameScreen extends Application {
     private Image loadPetImage(String petType) {
         String imagePath = "Assets/Sprites/" + petType.toLowerCase() + ".gif";
         try {
-            return new Image(imagePath);
+            return assets.acquire(imagePath);
         } catch (Exception e) {
             System.err.println("Failed to load pet image: " + imagePath);
-            return new Image("Assets/Sprites/default.png"); // Default image if pet image not found
+            return assets.acquire("Assets/Sprites/default.png"); // Default image if pet image not found
         }
     }
 
@@ -21,6 +21,7 @@ import javafx.scene.image.ImageView;
  * @since 1.0
  */
 public class LoadGameTutorialScreen extends Application {
+    private final AssetManager.Scope assets = AssetManager.getInstance().newScope(); // Shared images, held while this screen is shown
     private static Scene previousScene;
 
     /**
@@ -80,7 +81,7 @@ public class LoadGameTutorialScreen extends Application {
         howTo_msg.setTranslateY(-30);
 
         // Create and configure a cancel button to close the stage.
-        Image cancelButtonImage = new Image(getClass().getResource("Assets/Buttons/closebtn.png").toExternalForm());
+        Image cancelButtonImage = assets.acquire("Assets/Buttons/closebtn.png");
         ImageView cancelButtonView = new ImageView(cancelButtonImage);
         cancelButtonView.setFitWidth(50);
         cancelButtonView.setFitHeight(50);
@@ -104,7 +105,7 @@ public class LoadGameTutorialScreen extends Application {
 
         // Create and configure a next button to navigate to the "Game Over Tutorial"
         // screen.
-        Image nextButtonImage = new Image(getClass().getResource("Assets/Buttons/NextButton.png").toExternalForm());
+        Image nextButtonImage = assets.acquire("Assets/Buttons/NextButton.png");
         ImageView nextButtonView = new ImageView(nextButtonImage);
         nextButtonView.setFitWidth(200);
         nextButtonView.setFitHeight(200);
@@ -124,7 +125,7 @@ public class LoadGameTutorialScreen extends Application {
         });
 
         // Create and configure an ImageView for the background.
-        Image background = new Image(getClass().getResource("Assets/Images/box.png").toExternalForm());
+        Image background = assets.acquire("Assets/Images/box.png");
         ImageView backgroundView = new ImageView(background);
         backgroundView.setPreserveRatio(false);
         backgroundView.setFitWidth(1000);
@@ -142,6 +143,7 @@ public class LoadGameTutorialScreen extends Application {
 
         // Create the scene and apply CSS styling
         Scene scene = new Scene(root, 1000, 800);
+        assets.holdWhileShown(stage, scene); // Release the images once the scene is replaced
         scene.getStylesheets().add("Styles/TutorialScreen.css");
 
         return scene;
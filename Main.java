@@ -21,6 +21,9 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) {
+        // Decode the images of the next screens in the background while the menu shows
+        AssetPreloader.getInstance().start();
+
         // Start from the main menu
         MainMenuScreen mainScreen = new MainMenuScreen();
 
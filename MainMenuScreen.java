@@ -2,6 +2,7 @@ import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.Scene;
@@ -27,6 +28,7 @@ import javafx.scene.control.TextField;
  * @see README.md
  */
 public class MainMenuScreen extends Application {
+    private final AssetManager.Scope assets = AssetManager.getInstance().newScope(); // Shared images, held while this screen is shown
     private static Scene previousScene;
 
     
@@ -56,7 +58,7 @@ public class MainMenuScreen extends Application {
 
         // First BorderPane for the logo
         BorderPane logoPane = new BorderPane();
-        Image logoImage = new Image("Assets/Images/logo.gif");
+        Image logoImage = assets.acquire("Assets/Images/logo.gif");
         ImageView logoView = new ImageView(logoImage);
         logoView.setFitWidth(400);
         logoView.setPreserveRatio(true);
@@ -72,7 +74,7 @@ public class MainMenuScreen extends Application {
         VBox centerVBox = new VBox(5); // Reduce vertical spacing between elements to bring them closer
         centerVBox.setAlignment(Pos.CENTER); // Align everything at the top
 
-        Image buttonBackground = new Image("Assets/Buttons/rectanglebtn.png");
+        Image buttonBackground = assets.acquire("Assets/Buttons/rectanglebtn.png");
 
         // Buttons
         Button newGame = createButtonWithImage("New Game", buttonBackground, customFont);
@@ -103,6 +105,18 @@ public class MainMenuScreen extends Application {
         footerContainer.setAlignment(Pos.CENTER);
         footerContainer.getChildren().addAll(creators, projectDetails);
 
+        // Progress of the game images decoding in the background, hidden once done
+        AssetPreloader preloader = AssetPreloader.getInstance();
+        preloader.start();
+        if (!preloader.isDone()) {
+            ProgressBar loadingBar = new ProgressBar();
+            loadingBar.setPrefWidth(300);
+            loadingBar.progressProperty().bind(preloader.progressProperty());
+            loadingBar.visibleProperty().bind(preloader.progressProperty().lessThan(1));
+            loadingBar.managedProperty().bind(loadingBar.visibleProperty());
+            footerContainer.getChildren().add(loadingBar);
+        }
+
         // Add padding to move the footer higher
         footerContainer.setPadding(new javafx.geometry.Insets(20, 0, 20, 0)); // Top, Right, Bottom, Left padding
         // Add the VBox to the bottom of the BorderPane
@@ -198,6 +212,7 @@ public class MainMenuScreen extends Application {
         exitGame.setOnAction(e -> stage.close());
 
         Scene mainMenuScene = new Scene(root, 1000, 800);
+        assets.holdWhileShown(stage, mainMenuScene); // Release the images once the scene is replaced
         mainMenuScene.getStylesheets().add(getClass().getResource("Styles/MenuScreen.css").toExternalForm());
 
         return mainMenuScene;
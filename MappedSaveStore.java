@@ -0,0 +1,448 @@
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * MappedSaveStore keeps every save as a fixed-size record in one
+ * memory-mapped file, savedata/saves.dat.
+ * 
+ * The record of save_id N starts at HEADER_SIZE + (N - 1) * RECORD_SIZE, so
+ * reading or writing a save is a copy at a known offset, with no parsing and
+ * no matter how many saves there are. Record layout:
+ * 
+ * - 0   state byte (0 empty, 1 in use)
+ * - 4   save_id, level (int each)
+ * - 12  last_played as epoch milliseconds (long)
+ * - 20  hunger, fun, sleep, grooming (one byte each, 0xFF if missing)
+ * - 24  username, pet name, pet type (32 bytes each: length byte + UTF-8)
+ * - 120 quantity of each ItemRegistry catalog item (int each, -1 if not owned)
+ * - 252 CRC32 of the bytes before it
+ * 
+ * The file header holds the record size, the number of records the file has
+ * room for and the next save id to hand out.
+ * 
+ * The fixed layout only has room for what the game itself stores: names are
+ * cut to at most 31 bytes, at a character boundary, and items that are not in
+ * the item catalog are dropped. One mapped buffer holds at most 2 GB, which
+ * caps the save ids at MAX_CAPACITY.
+ * 
+ * When the file does not exist yet, every save in the sharded store is
+ * copied into it.
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class MappedSaveStore implements SaveStore {
+    public static final String DEFAULT_FILE = "savedata/saves.dat";
+
+    private static final int MAGIC = 0x414E4D53; // "ANMS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 256;
+    private static final int MIN_CAPACITY = 64;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE; // Records in one mapping
+    private static final int HEADER_CAPACITY = 12;
+    private static final int HEADER_NEXT_SAVE_ID = 16;
+
+    private static final int STATE = 0;
+    private static final int SAVE_ID = 4;
+    private static final int LEVEL = 8;
+    private static final int LAST_PLAYED = 12;
+    private static final int STATS = 20;
+    private static final int USERNAME = 24;
+    private static final int PET_NAME = 56;
+    private static final int PET_TYPE = 88;
+    private static final int ITEMS = 120;
+    private static final int CHECKSUM = 252;
+    private static final int STRING_SIZE = 32;
+    private static final int ITEM_SLOTS = (CHECKSUM - ITEMS) / 4;
+
+    private static final int STATE_IN_USE = 1;
+    private static final int MISSING_STAT = 0xFF;
+    private static final String[] STAT_NAMES = { "hunger", "fun", "sleep", "grooming" };
+
+    private final File file;
+    private final FileChannel channel;
+    private final RecordCodec codec = new RecordCodec();
+    private final TreeSet<Integer> saveIds = new TreeSet<>();
+    private MappedByteBuffer buffer;
+    private int capacity;
+
+    /**
+     * Open the store in the default save file, copying the sharded saves into
+     * it the first time
+     */
+    public MappedSaveStore() {
+        this(new File(DEFAULT_FILE), null);
+    }
+
+    /**
+     * Open the store in the given file
+     * 
+     * @param file   The memory-mapped save file
+     * @param source The store to copy saves from when the file is new, or null
+     *               for the default sharded store
+     */
+    public MappedSaveStore(File file, SaveStore source) {
+        if (ItemRegistry.getCatalogSize() > ITEM_SLOTS) {
+            throw new IllegalStateException("Save record has room for " + ITEM_SLOTS + " items only");
+        }
+        this.file = file;
+        boolean created = !file.exists();
+
+        try {
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            channel = new RandomAccessFile(file, "rw").getChannel();
+            if (created || channel.size() < HEADER_SIZE) {
+                map(0);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, RECORD_SIZE);
+                buffer.putInt(HEADER_NEXT_SAVE_ID, 1);
+                ensureCapacity(MIN_CAPACITY);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                channel.read(header, 0);
+                if (header.getInt(0) != MAGIC || header.getInt(8) != RECORD_SIZE) {
+                    throw new IOException("Not a save file: " + file.getPath());
+                }
+                map(header.getInt(HEADER_CAPACITY));
+                loadSaveIds();
+
+                // A counter behind the records it handed out means a damaged header
+                if (!saveIds.isEmpty() && buffer.getInt(HEADER_NEXT_SAVE_ID) <= saveIds.last()) {
+                    System.err.println("Recovering save id counter of " + file.getPath());
+                    buffer.putInt(HEADER_NEXT_SAVE_ID, saveIds.last() + 1);
+                    buffer.force();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open save file " + file.getPath() + ": " + e.getMessage(), e);
+        }
+
+        if (created) {
+            importSaves(source != null ? source : new ShardedSaveStore());
+        }
+    }
+
+    @Override
+    public synchronized JSONObject readSave(int saveId) {
+        if (!saveIds.contains(saveId)) {
+            return null;
+        }
+        byte[] record = new byte[RECORD_SIZE];
+        buffer.get(offset(saveId), record);
+        try {
+            return codec.decode(record);
+        } catch (IOException e) {
+            System.err.println("Failed to read save " + saveId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void writeSave(JSONObject save) throws IOException {
+        Object id = save.get("save_id");
+        if (!(id instanceof Number)) {
+            throw new IllegalArgumentException("Save object does not contain a numeric 'save_id'.");
+        }
+        writeSave(((Number) id).intValue(), codec.encode(save), null);
+    }
+
+    @Override
+    public synchronized void writeSave(int saveId, byte[] content, SaveSummary summary) throws IOException {
+        if (saveId < 1) {
+            throw new IllegalArgumentException("Save id must be positive: " + saveId);
+        }
+        if (content.length != RECORD_SIZE) {
+            throw new IllegalArgumentException("Save record must be " + RECORD_SIZE + " bytes");
+        }
+        ensureCapacity(saveId);
+        buffer.put(offset(saveId), content);
+        if (saveId >= buffer.getInt(HEADER_NEXT_SAVE_ID)) {
+            buffer.putInt(HEADER_NEXT_SAVE_ID, saveId + 1);
+        }
+        buffer.force();
+        saveIds.add(saveId);
+    }
+
+    @Override
+    public synchronized List<Integer> getSaveIds() {
+        return new ArrayList<>(saveIds);
+    }
+
+    /**
+     * Get the header of every save, read straight from the records without
+     * decoding the inventories
+     *
+     * @return The list of save headers, ordered by save id
+     */
+    @Override
+    public synchronized List<SaveSummary> getSaveSummaries() {
+        List<SaveSummary> summaries = new ArrayList<>();
+        for (int saveId : saveIds) {
+            int record = offset(saveId);
+            long lastPlayed = buffer.getLong(record + LAST_PLAYED);
+            summaries.add(new SaveSummary(saveId,
+                    readString(buffer, record + USERNAME),
+                    readString(buffer, record + PET_NAME),
+                    readString(buffer, record + PET_TYPE),
+                    buffer.getInt(record + LEVEL),
+                    lastPlayed == Long.MIN_VALUE ? null : toDateTime(lastPlayed)));
+        }
+        return summaries;
+    }
+
+    @Override
+    public synchronized int getHighestSaveId() {
+        return saveIds.isEmpty() ? 0 : saveIds.last();
+    }
+
+    /**
+     * Hand out a new save id from the counter in the file header
+     *
+     * @return The new save id
+     */
+    @Override
+    public synchronized int allocateSaveId() {
+        int saveId = buffer.getInt(HEADER_NEXT_SAVE_ID);
+        buffer.putInt(HEADER_NEXT_SAVE_ID, saveId + 1);
+        buffer.force();
+        return saveId;
+    }
+
+    @Override
+    public SaveCodec getCodec() {
+        return codec;
+    }
+
+    @Override
+    public File getDirectory() {
+        return file.getAbsoluteFile().getParentFile();
+    }
+
+    /**
+     * Copy every save of another store into this one
+     *
+     * @param source The store to copy from
+     */
+    private void importSaves(SaveStore source) {
+        int count = 0;
+        for (int saveId : source.getSaveIds()) {
+            JSONObject save = source.readSave(saveId);
+            try {
+                if (save != null) {
+                    writeSave(save);
+                    count++;
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to copy save " + saveId + ": " + e.getMessage());
+            }
+        }
+        System.out.println("Copied " + count + " saves into " + file.getPath());
+    }
+
+    private void loadSaveIds() {
+        for (int slot = 0; slot < capacity; slot++) {
+            int record = HEADER_SIZE + slot * RECORD_SIZE;
+            if (buffer.get(record + STATE) == STATE_IN_USE) {
+                saveIds.add(slot + 1);
+            }
+        }
+    }
+
+    /**
+     * Grow the file so it has a record for the save id
+     *
+     * @param saveId The save id that must fit
+     */
+    private void ensureCapacity(int saveId) throws IOException {
+        if (saveId <= capacity) {
+            return;
+        }
+        if (saveId > MAX_CAPACITY) {
+            throw new IOException("Save id " + saveId + " does not fit in " + file.getPath());
+        }
+        int newCapacity = (int) Math.min(MAX_CAPACITY, Math.max(Math.max(saveId, capacity * 2L), MIN_CAPACITY));
+        map(newCapacity);
+        buffer.putInt(HEADER_CAPACITY, newCapacity);
+        buffer.force();
+    }
+
+    private void map(int newCapacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * RECORD_SIZE);
+        capacity = newCapacity;
+    }
+
+    private int offset(int saveId) {
+        long offset = HEADER_SIZE + (saveId - 1L) * RECORD_SIZE; // In long, a large id would overflow an int
+        if (saveId < 1 || offset + RECORD_SIZE > buffer.capacity()) {
+            throw new IllegalArgumentException("No record for save id " + saveId);
+        }
+        return (int) offset;
+    }
+
+    private static String readString(ByteBuffer record, int position) {
+        int length = record.get(position) & 0xFF;
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        record.get(position + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()).toString();
+    }
+
+    /**
+     * Turns a save object into its fixed-size record and back
+     */
+    private static class RecordCodec implements SaveCodec {
+
+        @Override
+        public byte[] encode(JSONObject save) {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            record.put(STATE, (byte) STATE_IN_USE);
+            record.putInt(SAVE_ID, ((Number) save.get("save_id")).intValue());
+            writeString(record, USERNAME, (String) save.get("username"));
+
+            JSONObject gameProgress = (JSONObject) save.get("game_progress");
+            Object level = gameProgress != null ? gameProgress.get("level") : null;
+            Object lastPlayed = gameProgress != null ? gameProgress.get("last_played") : null;
+            record.putInt(LEVEL, level instanceof Number ? ((Number) level).intValue() : 1);
+            record.putLong(LAST_PLAYED, toEpochMillis(lastPlayed));
+
+            JSONObject pet = (JSONObject) save.get("pet");
+            JSONObject stats = pet != null ? (JSONObject) pet.get("stats") : null;
+            writeString(record, PET_NAME, pet != null ? (String) pet.get("name") : null);
+            writeString(record, PET_TYPE, pet != null ? (String) pet.get("type") : null);
+            for (int i = 0; i < STAT_NAMES.length; i++) {
+                Object value = stats != null ? stats.get(STAT_NAMES[i]) : null;
+                int stat = value instanceof Number ? ((Number) value).intValue() : MISSING_STAT;
+                record.put(STATS + i, (byte) Math.max(0, Math.min(stat, MISSING_STAT)));
+            }
+
+            for (int slot = 0; slot < ITEM_SLOTS; slot++) {
+                record.putInt(ITEMS + slot * 4, -1);
+            }
+            JSONArray inventory = (JSONArray) save.get("inventory");
+            if (inventory != null) {
+                for (Object obj : inventory) {
+                    JSONObject item = (JSONObject) obj;
+                    Object name = item.get("name");
+                    Object quantity = item.get("quantity");
+                    int id = name instanceof String ? ItemRegistry.getId((String) name) : ItemRegistry.UNKNOWN;
+                    if (id == ItemRegistry.UNKNOWN || id >= ItemRegistry.getCatalogSize()
+                            || !(quantity instanceof Number)) {
+                        System.err.println("Save record has no room for item: " + item.toJSONString());
+                        continue;
+                    }
+                    record.putInt(ITEMS + id * 4, ((Number) quantity).intValue());
+                }
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), 0, CHECKSUM);
+            record.putInt(CHECKSUM, (int) crc.getValue());
+            return record.array();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public JSONObject decode(byte[] data) throws IOException {
+            ByteBuffer record = ByteBuffer.wrap(data);
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, CHECKSUM);
+            if (record.getInt(CHECKSUM) != (int) crc.getValue()) {
+                throw new IOException("Save record is corrupt");
+            }
+
+            JSONObject save = new JSONObject();
+            save.put("save_id", (long) record.getInt(SAVE_ID));
+            save.put("username", readString(record, USERNAME));
+
+            JSONObject stats = new JSONObject();
+            for (int i = 0; i < STAT_NAMES.length; i++) {
+                int value = record.get(STATS + i) & 0xFF;
+                if (value != MISSING_STAT) {
+                    stats.put(STAT_NAMES[i], (long) value);
+                }
+            }
+            JSONObject pet = new JSONObject();
+            pet.put("name", readString(record, PET_NAME));
+            pet.put("type", readString(record, PET_TYPE));
+            pet.put("stats", stats);
+            save.put("pet", pet);
+
+            JSONObject gameProgress = new JSONObject();
+            long lastPlayed = record.getLong(LAST_PLAYED);
+            gameProgress.put("level", (long) record.getInt(LEVEL));
+            gameProgress.put("last_played", lastPlayed == Long.MIN_VALUE ? null : toDateTime(lastPlayed));
+            save.put("game_progress", gameProgress);
+
+            JSONArray inventory = new JSONArray();
+            for (int id = 0; id < ItemRegistry.getCatalogSize(); id++) {
+                int quantity = record.getInt(ITEMS + id * 4);
+                if (quantity >= 0) {
+                    JSONObject item = new JSONObject();
+                    item.put("name", ItemRegistry.getName(id));
+                    item.put("quantity", (long) quantity);
+                    inventory.add(item);
+                }
+            }
+            save.put("inventory", inventory);
+            return save;
+        }
+
+        @Override
+        public String getFileExtension() {
+            return ".dat";
+        }
+
+        private static void writeString(ByteBuffer record, int position, String value) {
+            if (value == null) {
+                record.put(position, (byte) 0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, STRING_SIZE - 1);
+            // Cut before a character that does not fit whole, its later bytes are 10xxxxxx
+            while (length < bytes.length && length > 0 && (bytes[length] & 0xC0) == 0x80) {
+                length--;
+            }
+            record.put(position, (byte) (length + 1));
+            record.put(position + 1, bytes, 0, length);
+        }
+
+        private static long toEpochMillis(Object lastPlayed) {
+            if (!(lastPlayed instanceof String)) {
+                return Long.MIN_VALUE;
+            }
+            try {
+                return LocalDateTime.parse((String) lastPlayed).atZone(ZoneId.systemDefault()).toInstant()
+                        .toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return Long.MIN_VALUE;
+            }
+        }
+    }
+}
@@ -1,17 +1,16 @@
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
 
 /**
  * NewGame class is used in the Main Menu to allow users to create a new game and save their data.
- * This class handles saving new game data to a JSON file and assigning save IDs.
+ * This class handles saving new game data to the save store and assigning save IDs.
  * 
  * The class allows users to:
  * - Add a new save entry to the save file with a unique save ID.
  * - Generate a new save entry with initial game progress, inventory, and placeholder pet information.
- * - Store and update the save file with new save data.
+ * - Store the new save in its own file in the save store.
  * 
  * @author Rahul Iyer
  * @version 1.0
@@ -20,43 +19,29 @@ import java.io.FileWriter;
 
 public class NewGame {
 
-    private static final String SAVE_FILE = "savedata/savefile.json";
     private static int currentSaveID = -1;
 
      /**
      * Adds a new save entry to the save file with the provided username.
      * This method generates a unique save ID, creates an initial game state (progress, inventory, etc.), 
-     * and writes the data to the save file.
+     * and writes the data to its own file in the save store.
      * 
      * @param username The username of the player creating the new game.
      * @return The generated save ID for the new game, or -1 if an error occurs.
      */
     public static int addNewSave(String username){
-        JSONParser parser = new JSONParser();
-        try (FileReader reader = new FileReader(SAVE_FILE)) {
-            // Parse the existing save file
-            JSONObject saveData = (JSONObject) parser.parse(reader);
-            JSONArray saves = (JSONArray) saveData.get("saves");
+        try {
+            SaveRepository saveRepository = SaveRepository.getInstance();
 
-            if (saves == null) {
-                System.out.println("No 'saves' array found");
-                return -1;
-            }
-
-            // Generate a new save_id (based on existing save_ids in the file)
-            int newSaveId = generateNewSaveId(saves);
+            // Generate a new save_id (from the save id counter in the manifest)
+            int newSaveId = generateNewSaveId(saveRepository);
             currentSaveID = newSaveId;
 
             // Create the new save object with the provided username
             JSONObject newSave = createNewSave(username, newSaveId);
 
-            // Add the new save entry to the "saves" array
-            saves.add(newSave);
-
-            // Write the updated save data back to the file
-            try (FileWriter fileWriter = new FileWriter(SAVE_FILE)) {
-                fileWriter.write(saveData.toJSONString());
-            }
+            // Write the new save to its own shard and keep it cached for the next screens
+            saveRepository.addSave(newSave);
 
             System.out.println("New save added with save_id: " + newSaveId);
             return newSaveId;
@@ -77,21 +62,15 @@ public class NewGame {
     }
 
      /**
-     * Generates a unique save ID by iterating over the existing saves and finding the highest save ID.
-     * The new save ID is the highest existing save ID + 1.
+     * Generates a unique save ID from the persisted save ID counter.
+     * No save is read, and an ID is never handed out twice.
      * 
-     * @param saves The array of existing save data in the save file.
+     * @param saveRepository The repository holding the existing saves.
      * @return The newly generated save ID.
+     * @throws IOException if the save ID counter could not be written.
      */
-    private static int generateNewSaveId(JSONArray saves) {
-        // Generate a unique save_id by finding the highest existing save_id and adding 1
-        int highestSaveId = 0;
-        for (Object obj : saves) {
-            JSONObject save = (JSONObject) obj;
-            int saveId = ((Long) save.get("save_id")).intValue();
-            highestSaveId = Math.max(highestSaveId, saveId);
-        }
-        return highestSaveId + 1;  // Generate a new save_id by incrementing the highest value
+    private static int generateNewSaveId(SaveRepository saveRepository) throws IOException {
+        return saveRepository.allocateSaveId();  // Take the next value of the counter
     }
     /**
      * Creates a new save object with the provided username, save ID, initial game progress, inventory, and pet details.
@@ -108,7 +87,7 @@ public class NewGame {
         // Add game progress (initial level and last_played time)
         JSONObject gameProgress = new JSONObject();
         gameProgress.put("level", 1);
-        gameProgress.put("last_played", "2024-12-01T00:00:00");  // Initial date/time
+        gameProgress.put("last_played", LocalDateTime.now().toString());  // The pet starts decaying from now
 
         // Add initial inventory (you can expand this as necessary)
         JSONArray inventory = new JSONArray();
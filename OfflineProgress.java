@@ -0,0 +1,131 @@
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * OfflineProgress applies the stat decay a pet would have had while the game
+ * was closed.
+ *
+ * A loaded pet's decay steps are counted in epoch seconds, so a stat decays
+ * whenever the epoch second is a multiple of its decay interval, in the game
+ * and while it is closed alike. last_played is the step the saved stats are
+ * decayed up to, and a stat loses one point for every multiple of its interval
+ * between that step and now. A partly elapsed interval is never lost between
+ * sessions, however often the game is saved. That is worked out with two
+ * divisions per stat, so a save that has not been played for a week loads as
+ * fast as one from a minute ago.
+ *
+ * Time away can make a pet hungry, tired or bored, but never kill it: offline
+ * decay stops at OFFLINE_FLOOR. Every interval is under a minute, so without
+ * the floor any save left for a few minutes would be game over on load.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public final class OfflineProgress {
+    public static final int OFFLINE_FLOOR = 1; // Offline decay leaves every stat at least this high
+
+    private OfflineProgress() {
+    }
+
+    /**
+     * Get the seconds since a save was last played
+     *
+     * @param lastPlayed The last_played value of the save's game progress
+     * @param nowMillis  The current time in epoch milliseconds
+     * @return The whole seconds since the save was played, 0 if the time is
+     *         missing, invalid or in the future
+     */
+    public static long elapsedSeconds(String lastPlayed, long nowMillis) {
+        long lastPlayedSeconds = epochSeconds(lastPlayed);
+        return lastPlayedSeconds < 0 ? 0 : Math.max(0, nowMillis / 1000 - lastPlayedSeconds);
+    }
+
+    /**
+     * Get the decay step a last_played time stands for
+     *
+     * @param lastPlayed The last_played value of the save's game progress
+     * @return The whole epoch seconds of the time, -1 if it is missing or
+     *         invalid
+     */
+    public static long epochSeconds(String lastPlayed) {
+        if (lastPlayed == null || lastPlayed.isEmpty()) {
+            return -1;
+        }
+        try {
+            return LocalDateTime.parse(lastPlayed).atZone(ZoneId.systemDefault()).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            System.err.println("Ignoring invalid last_played time: " + lastPlayed);
+            return -1;
+        }
+    }
+
+    /**
+     * Get the last_played value for a decay step
+     *
+     * @param step The decay step, in epoch seconds
+     * @return The local date and time of the step
+     */
+    public static String lastPlayed(long step) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(step), ZoneId.systemDefault()).toString();
+    }
+
+    /**
+     * Get the value of a stat after decaying from one step to a later one
+     *
+     * @param value          The value of the stat
+     * @param fromStep       The step the value is decayed up to
+     * @param elapsedSeconds Seconds of decay after that step
+     * @param interval       Seconds between decays of the stat
+     * @return The decayed value, never below OFFLINE_FLOOR unless it already was
+     */
+    public static int decayedValue(int value, long fromStep, long elapsedSeconds, int interval) {
+        interval = Math.max(1, interval);
+        // The multiples of the interval in (fromStep, fromStep + elapsedSeconds]
+        long decays = Math.floorDiv(fromStep + elapsedSeconds, interval) - Math.floorDiv(fromStep, interval);
+        return (int) Math.max(Math.min(value, OFFLINE_FLOOR), value - decays);
+    }
+
+    /**
+     * Decay every stat of a pet for the time it was away
+     *
+     * @param pet            The pet, with the stats from its save
+     * @param species        The pet's species with its decay intervals
+     * @param fromStep       The step the saved stats are decayed up to
+     * @param elapsedSeconds Seconds since that step
+     * @return The bits of the stats that went down
+     */
+    public static int catchUp(Pet pet, Species species, long fromStep, long elapsedSeconds) {
+        if (elapsedSeconds <= 0) {
+            return 0;
+        }
+        int hunger = decayedValue(pet.getHunger(), fromStep, elapsedSeconds, species.getDecayInterval(Pet.HUNGER));
+        int fun = decayedValue(pet.getFun(), fromStep, elapsedSeconds, species.getDecayInterval(Pet.FUN));
+        int sleep = decayedValue(pet.getSleep(), fromStep, elapsedSeconds, species.getDecayInterval(Pet.SLEEP));
+        int grooming = decayedValue(pet.getGrooming(), fromStep, elapsedSeconds,
+                species.getDecayInterval(Pet.GROOMING));
+
+        int changedStats = 0;
+        if (hunger != pet.getHunger()) {
+            changedStats |= Pet.HUNGER;
+        }
+        if (fun != pet.getFun()) {
+            changedStats |= Pet.FUN;
+        }
+        if (sleep != pet.getSleep()) {
+            changedStats |= Pet.SLEEP;
+        }
+        if (grooming != pet.getGrooming()) {
+            changedStats |= Pet.GROOMING;
+        }
+
+        // The setters mark the changed stats dirty, so the next journal record saves them
+        pet.setHunger(hunger);
+        pet.setFun(fun);
+        pet.setSleep(sleep);
+        pet.setGrooming(grooming);
+        return changedStats;
+    }
+}
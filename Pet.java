@@ -4,15 +4,24 @@
  * This interface is used to define the common properties and behaviors of all pets.
  * 
  * @author William Du
+ * @author agent
  * @version 1.0 - Initial version
  * @version 1.1 - Added increase and decrease methods for each property
  * @version 1.2 - Added setters for each property
+ * @version 1.3 - Added dirty stat tracking so saves only write changed stats
+ * @version 1.4 - Added packed stat snapshots that are safe to read from any thread
  * 
  * @since 1.0
  * 
  */
 public interface Pet {
 
+    // Bits returned by getDirtyStats, one per stat
+    int HUNGER = 1;
+    int FUN = 2;
+    int SLEEP = 4;
+    int GROOMING = 8;
+
     // Getters for common pet properties
     String getName();
     String getType();
@@ -44,4 +53,70 @@ public interface Pet {
     void decreaseSleep(int value);
     void decreaseGrooming(int value);
 
+    // Stats changed since the last save, as a combination of the bits above
+    int getDirtyStats();
+    void clearDirtyStats();
+
+    // Every stat and the dirty bits packed in one int, read in one step so the
+    // values always belong together. Unpack with stat and dirtyStats.
+    int getStats();
+
+    // Same as getStats, and marks the stats as saved in the same step, so a
+    // change made in between is never lost
+    int takeStats();
+
+    // Lowers each of the given stats by one, unless it is already 0, in one
+    // step, and returns the packed stats from before the change
+    int decayStats(int statBits);
+
+    /**
+     * Get one stat from a packed snapshot
+     *
+     * @param stats A snapshot from getStats or takeStats
+     * @param stat  One of HUNGER, FUN, SLEEP or GROOMING
+     * @return The stat value (0-10)
+     */
+    static int stat(int stats, int stat) {
+        return (stats >>> statShift(stat)) & 0xF;
+    }
+
+    /**
+     * Get the dirty stats from a packed snapshot
+     *
+     * @param stats A snapshot from getStats or takeStats
+     * @return The bits of the stats changed since the last save
+     */
+    static int dirtyStats(int stats) {
+        return (stats >>> 16) & 0xF;
+    }
+
+    /**
+     * Lower each of the given stats by one in a packed snapshot, unless it is
+     * already 0, and mark the ones lowered as dirty
+     *
+     * @param stats    A snapshot from getStats or takeStats
+     * @param statBits The bits of the stats to lower
+     * @return The snapshot after the change
+     */
+    static int decay(int stats, int statBits) {
+        for (int stat = HUNGER; stat <= GROOMING; stat <<= 1) {
+            if ((statBits & stat) != 0 && stat(stats, stat) > 0) {
+                stats = (stats - (1 << statShift(stat))) | stat << 16;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Pack stat values into a snapshot with no dirty stats
+     */
+    static int packStats(int hunger, int fun, int sleep, int grooming) {
+        return hunger | fun << 4 | sleep << 8 | grooming << 12;
+    }
+
+    // Each stat takes 4 bits, in the order of its bit, then the 4 dirty bits
+    private static int statShift(int stat) {
+        return Integer.numberOfTrailingZeros(stat) << 2;
+    }
+
 }
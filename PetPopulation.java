@@ -0,0 +1,231 @@
+import java.util.Arrays;
+
+/**
+ * PetPopulation simulates a large number of pets at once for balancing runs.
+ *
+ * Instead of one Pet object per pet, every stat is kept in its own byte array
+ * with one entry per pet, and the pets of each species sit next to each other.
+ * Decay then becomes, for each species and stat, "subtract the same amount
+ * from a range of a byte array and clamp at 0", which the JIT turns into a
+ * tight vectorized loop over millions of pets.
+ *
+ * The decay follows the same rule as SimulationLoop and OfflineProgress: a
+ * stat loses one point on every step that is a multiple of its species' decay
+ * interval, so advancing a population gives the same stats as advancing each
+ * pet on its own.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class PetPopulation {
+    public static final int MAX_STAT = 10;
+    public static final int ALIVE = -1; // Game over step of a pet that is still alive
+
+    private static final int[] STATS = { Pet.HUNGER, Pet.FUN, Pet.SLEEP, Pet.GROOMING };
+
+    private final Species[] species;
+    private final int[] speciesStart; // Index of the first pet of each species, plus the size at the end
+    private final byte[] hunger, fun, sleep, grooming;
+    private final int[] level;
+    private final long[] gameOverStep;
+    private long step = 0;
+
+    /**
+     * Create a population with full stats and level 1
+     *
+     * @param species         The species to simulate
+     * @param countPerSpecies The number of pets of each species
+     */
+    public PetPopulation(Species[] species, int countPerSpecies) {
+        this.species = species.clone();
+        this.speciesStart = new int[species.length + 1];
+        for (int s = 0; s < species.length; s++) {
+            speciesStart[s + 1] = speciesStart[s] + countPerSpecies;
+        }
+
+        int size = speciesStart[species.length];
+        hunger = new byte[size];
+        fun = new byte[size];
+        sleep = new byte[size];
+        grooming = new byte[size];
+        level = new int[size];
+        gameOverStep = new long[size];
+        reset();
+    }
+
+    /**
+     * Give every pet full stats and level 1 again, and restart the step count
+     */
+    public void reset() {
+        Arrays.fill(hunger, (byte) MAX_STAT);
+        Arrays.fill(fun, (byte) MAX_STAT);
+        Arrays.fill(sleep, (byte) MAX_STAT);
+        Arrays.fill(grooming, (byte) MAX_STAT);
+        Arrays.fill(level, 1);
+        Arrays.fill(gameOverStep, ALIVE);
+        step = 0;
+    }
+
+    /**
+     * Decay every pet for a number of seconds
+     *
+     * Pets whose stats are all 0 at the end are marked game over at the last
+     * step, so advance in small amounts when the exact step matters.
+     *
+     * @param seconds Seconds of game time
+     */
+    public void advance(long seconds) {
+        if (seconds <= 0) {
+            return;
+        }
+        long from = step;
+        step += seconds;
+
+        for (int s = 0; s < species.length; s++) {
+            int start = speciesStart[s];
+            int end = speciesStart[s + 1];
+            for (int stat : STATS) {
+                int interval = Math.max(1, species[s].getDecayInterval(stat));
+                // Steps in (from, step] that are a multiple of the interval
+                long decays = step / interval - from / interval;
+                if (decays > 0) {
+                    decayRange(getStatArray(stat), start, end, (int) Math.min(decays, MAX_STAT));
+                }
+            }
+        }
+        markGameOver();
+    }
+
+    /**
+     * Use an item on one pet
+     *
+     * @param pet    The pet index
+     * @param effect The effect of the item on the pet's species
+     */
+    public void applyItem(int pet, ItemEffect effect) {
+        hunger[pet] = clamp(hunger[pet] + effect.getHunger());
+        fun[pet] = clamp(fun[pet] + effect.getFun());
+        sleep[pet] = clamp(sleep[pet] + effect.getSleep());
+        grooming[pet] = clamp(grooming[pet] + effect.getGrooming());
+        level[pet] += effect.getLevel();
+    }
+
+    /**
+     * @return The number of pets
+     */
+    public int size() {
+        return hunger.length;
+    }
+
+    /**
+     * @return The number of steps run since the population was created or
+     *         reset
+     */
+    public long getStep() {
+        return step;
+    }
+
+    /**
+     * @param speciesIndex The index of the species in the array given to the
+     *                     constructor
+     * @return The index of the first pet of the species
+     */
+    public int getSpeciesStart(int speciesIndex) {
+        return speciesStart[speciesIndex];
+    }
+
+    /**
+     * @param speciesIndex The index of the species in the array given to the
+     *                     constructor
+     * @return The index after the last pet of the species
+     */
+    public int getSpeciesEnd(int speciesIndex) {
+        return speciesStart[speciesIndex + 1];
+    }
+
+    /**
+     * Get the species of a pet
+     *
+     * @param pet The pet index
+     * @return The species
+     */
+    public Species getSpecies(int pet) {
+        int s = Arrays.binarySearch(speciesStart, pet);
+        // Pets at the start of a block match exactly, others fall after it
+        s = s >= 0 ? s : -s - 2;
+        while (speciesStart[s + 1] == pet) {
+            s++; // Skip species with no pets
+        }
+        return species[s];
+    }
+
+    /**
+     * Get a stat of a pet
+     *
+     * @param pet  The pet index
+     * @param stat One of Pet.HUNGER, Pet.FUN, Pet.SLEEP or Pet.GROOMING
+     * @return The stat value (0-10)
+     */
+    public int getStat(int pet, int stat) {
+        return getStatArray(stat)[pet];
+    }
+
+    public int getLevel(int pet) {
+        return level[pet];
+    }
+
+    /**
+     * @param pet The pet index
+     * @return The step at which every stat of the pet was 0, or ALIVE
+     */
+    public long getGameOverStep(int pet) {
+        return gameOverStep[pet];
+    }
+
+    /**
+     * @return true if the pet has not reached game over
+     */
+    public boolean isAlive(int pet) {
+        return gameOverStep[pet] == ALIVE;
+    }
+
+    /**
+     * Subtract the same amount from a range of a stat array, clamping at 0
+     */
+    private static void decayRange(byte[] stat, int start, int end, int amount) {
+        for (int i = start; i < end; i++) {
+            stat[i] = (byte) Math.max(stat[i] - amount, 0);
+        }
+    }
+
+    /**
+     * Mark the pets whose stats just all reached 0
+     */
+    private void markGameOver() {
+        for (int i = 0; i < gameOverStep.length; i++) {
+            if ((hunger[i] | fun[i] | sleep[i] | grooming[i]) == 0 && gameOverStep[i] == ALIVE) {
+                gameOverStep[i] = step;
+            }
+        }
+    }
+
+    private byte[] getStatArray(int stat) {
+        switch (stat) {
+            case Pet.HUNGER:
+                return hunger;
+            case Pet.FUN:
+                return fun;
+            case Pet.SLEEP:
+                return sleep;
+            case Pet.GROOMING:
+                return grooming;
+            default:
+                throw new IllegalArgumentException("Unknown stat: " + stat);
+        }
+    }
+
+    private static byte clamp(int value) {
+        return (byte) Math.max(0, Math.min(MAX_STAT, value));
+    }
+}
@@ -0,0 +1,520 @@
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import java.util.BitSet;
+
+/**
+ * PetSimulation is the game logic of one save, with no JavaFX in it: the pet,
+ * its species, the inventory and the player level, the actions that change
+ * them, stat decay and the game over rule.
+ *
+ * GamePlayScreen is a view over a PetSimulation. It turns clicks and key
+ * presses into actions, feeds wall-clock time to advance from a Timeline and
+ * draws the result. Tests and tools can build a simulation straight from a
+ * save object and call advance with any amount of time, which runs the decay
+ * steps right away instead of waiting for the FX pulse.
+ *
+ * Stat thresholds are checked only when a stat changes, and the listener is
+ * told when a stat crosses one: when it falls to LOW_STAT or below, when it
+ * reaches 0 and, once, when every stat is 0. A step that changes nothing
+ * costs nothing, and each warning fires once per crossing instead of on
+ * every step.
+ *
+ * Every change is tracked, and takeChanges turns the changes since the last
+ * call into one save journal record. With a SessionRecorder set, every action
+ * is also written to the session recording before it is applied.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class PetSimulation {
+    private static final int STARTING_LEVEL = 1;
+    public static final int LOW_STAT = 3; // A stat at or below this needs attention
+    private static final int[] STATS = { Pet.HUNGER, Pet.FUN, Pet.SLEEP, Pet.GROOMING };
+    private static final int ALL_STATS = Pet.HUNGER | Pet.FUN | Pet.SLEEP | Pet.GROOMING;
+
+    private final String username;
+    private final Pet pet;
+    private final Species species;
+    private final Inventory inventory;
+    private final SimulationLoop loop;
+    private int playerLevel;
+    private int savedLevel; // Player level as last recorded in the save
+    private boolean gameOver = false;
+    private int lowStats = 0; // Bits of the stats at or below LOW_STAT, as of the last check
+    private int emptyStats = 0; // Bits of the stats at 0, as of the last check
+    private Listener listener;
+    private SessionRecorder recorder;
+
+    /**
+     * Receives the changes the simulation makes on its own and the stat
+     * threshold crossings
+     */
+    public interface Listener {
+        /**
+         * Called after a decay step
+         *
+         * @param changedStats The bits of the stats that went down
+         */
+        void onDecay(int changedStats);
+
+        /**
+         * Called when a stat falls to LOW_STAT or below, but not to 0. It is
+         * called again only after the stat has gone back above LOW_STAT.
+         *
+         * @param stat  The bit of the stat
+         * @param value The new value
+         */
+        void onStatLow(int stat, int value);
+
+        /**
+         * Called when a stat reaches 0. It is called again only after the stat
+         * has gone back above 0.
+         *
+         * @param stat The bit of the stat
+         */
+        void onStatEmpty(int stat);
+
+        /**
+         * Called once, when every stat reaches 0
+         */
+        void onGameOver();
+    }
+
+    /**
+     * @param username    The player's username
+     * @param pet         The pet, with its current stats
+     * @param species     The pet's species
+     * @param inventory   The player's inventory
+     * @param playerLevel The player level
+     */
+    public PetSimulation(String username, Pet pet, Species species, Inventory inventory, int playerLevel) {
+        this.username = username;
+        this.pet = pet;
+        this.species = species;
+        this.inventory = inventory;
+        this.playerLevel = playerLevel;
+        this.savedLevel = playerLevel;
+        this.loop = new SimulationLoop(pet, species, this::onStep);
+    }
+
+    /**
+     * Build a simulation from a save object and decay the pet for the time
+     * since the save was last played
+     *
+     * If the save is missing or invalid, a default Pegasus with every stat at
+     * 5 is used so the game can still start.
+     *
+     * @param saveObject The save object, may be null
+     * @param nowMillis  The current time in epoch milliseconds
+     * @return The simulation
+     */
+    public static PetSimulation fromSave(JSONObject saveObject, long nowMillis) {
+        String username = "";
+        String petName = null;
+        String petType = null;
+        int hunger = 0, fun = 0, sleep = 0, grooming = 0;
+        int playerLevel = STARTING_LEVEL;
+        String lastPlayed = null;
+        Inventory inventory = new Inventory();
+
+        try {
+            if (saveObject == null)
+                throw new IllegalArgumentException("Save data not found.");
+
+            // Extract username
+            username = (String) saveObject.get("username");
+            if (username == null)
+                throw new IllegalArgumentException("Missing 'username' in save data.");
+
+            // Extract pet data
+            JSONObject petData = (JSONObject) saveObject.get("pet");
+            if (petData == null)
+                throw new IllegalArgumentException("Missing 'pet' in save data.");
+            petName = (String) petData.get("name");
+            petType = (String) petData.get("type");
+            if (petName == null || petType == null)
+                throw new IllegalArgumentException("Missing pet name or type.");
+
+            // Extract pet stats
+            JSONObject stats = (JSONObject) petData.get("stats");
+            if (stats != null) {
+                hunger = stats.containsKey("hunger") ? ((Long) stats.get("hunger")).intValue() : 0;
+                fun = stats.containsKey("fun") ? ((Long) stats.get("fun")).intValue() : 0;
+                sleep = stats.containsKey("sleep") ? ((Long) stats.get("sleep")).intValue() : 0;
+                grooming = stats.containsKey("grooming") ? ((Long) stats.get("grooming")).intValue() : 0;
+            }
+
+            // Extract inventory
+            JSONArray inventoryArray = (JSONArray) saveObject.get("inventory");
+            if (inventoryArray != null) {
+                inventory.loadFromJSON(inventoryArray);
+                inventory.display();
+            }
+
+            // Extract game progress
+            JSONObject gameProgress = (JSONObject) saveObject.get("game_progress");
+            if (gameProgress == null)
+                throw new IllegalArgumentException("Missing 'gameProgress' in save data.");
+            if (gameProgress.containsKey("level")) {
+                playerLevel = ((Long) gameProgress.get("level")).intValue();
+            }
+            lastPlayed = (String) gameProgress.get("last_played");
+
+            System.out.println("Loaded save data: Username: " + username + ", Pet Name: " + petName + ", Pet Type: "
+                    + petType + ", Player Level: " + playerLevel);
+        } catch (Exception e) {
+            System.err.println("Failed to load save data: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        // Initialize the pet based on the loaded data, any species in the descriptor is valid
+        Pet pet;
+        try {
+            pet = SpeciesRegistry.createPet(petType, petName);
+            pet.setHunger(hunger);
+            pet.setFun(fun);
+            pet.setSleep(sleep);
+            pet.setGrooming(grooming);
+            pet.clearDirtyStats(); // The loaded stats match the save
+            System.out.println("Pet initialized: " + petName + " (" + petType + ")");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            // Fallback: Initialize with default pet
+            pet = new Pegasus(petName != null ? petName : "DefaultPet");
+            pet.setHunger(5);
+            pet.setFun(5);
+            pet.setSleep(5);
+            pet.setGrooming(5);
+            lastPlayed = null; // The default pet starts fresh
+            System.out.println("Initialized default pet: " + pet.getName());
+        }
+
+        PetSimulation simulation = new PetSimulation(username, pet, SpeciesRegistry.get(pet.getType()), inventory,
+                playerLevel);
+        // Steps count epoch seconds, so decay keeps its phase from one session to the next
+        long lastPlayedStep = OfflineProgress.epochSeconds(lastPlayed);
+        if (lastPlayedStep < 0) {
+            simulation.skipTo(nowMillis / 1000); // A pet with no time yet starts decaying from now
+        } else {
+            simulation.skipTo(lastPlayedStep);
+            simulation.catchUp(OfflineProgress.elapsedSeconds(lastPlayed, nowMillis));
+        }
+        return simulation;
+    }
+
+    /**
+     * Decay the pet in closed form for time spent away, and keep the decay
+     * steps in phase with it
+     *
+     * @param elapsedSeconds Seconds since the save was last played
+     * @return The bits of the stats that went down
+     */
+    public int catchUp(long elapsedSeconds) {
+        int changedStats = OfflineProgress.catchUp(pet, species, loop.getStep(), elapsedSeconds);
+        loop.skipTo(loop.getStep() + elapsedSeconds);
+        if (changedStats != 0) {
+            System.out.println("Pet was away for " + elapsedSeconds + " seconds, stats decayed");
+        }
+        return changedStats;
+    }
+
+    // =================== ACTIONS ===================
+
+    /**
+     * Use one of an inventory item on the pet
+     *
+     * @param itemId The item id from ItemRegistry
+     * @return The effect that was applied, or null if there is none of the item
+     *         left
+     */
+    public ItemEffect useItem(int itemId) {
+        if (recorder != null) {
+            recorder.recordUseItem(getStep(), itemId);
+        }
+        if (inventory.getQuantity(itemId) <= 0) {
+            return null;
+        }
+        // The effect of this item on this species, precomputed from the descriptor
+        ItemEffect effect = species.getItemEffect(itemId);
+        playerLevel += effect.applyTo(pet);
+        inventory.removeItem(itemId, 1);
+        checkThresholds(); // Some items lower other stats
+        return effect;
+    }
+
+    /**
+     * Look after the pet by hand, raising one stat by one and the level by one
+     *
+     * @param stat One of Pet.HUNGER, Pet.FUN, Pet.SLEEP or Pet.GROOMING
+     */
+    public void care(int stat) {
+        if (recorder != null) {
+            recorder.recordCare(getStep(), stat);
+        }
+        switch (stat) {
+            case Pet.HUNGER:
+                pet.increaseHunger(1);
+                break;
+            case Pet.FUN:
+                pet.increaseFun(1);
+                break;
+            case Pet.SLEEP:
+                pet.increaseSleep(1);
+                break;
+            case Pet.GROOMING:
+                pet.increaseGrooming(1);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown stat: " + stat);
+        }
+        playerLevel++;
+        checkThresholds();
+    }
+
+    /**
+     * Buy one of an item from the shop
+     *
+     * @param itemId The item id from ItemRegistry
+     */
+    public void buyItem(int itemId) {
+        if (recorder != null) {
+            recorder.recordBuyItem(getStep(), itemId);
+        }
+        inventory.addItem(itemId, 1);
+    }
+
+    // =================== TIME AND RULES ===================
+
+    /**
+     * Run the decay steps that fit in the given time
+     *
+     * @param seconds Wall-clock seconds since the last call
+     * @return The number of steps run
+     */
+    public int advance(double seconds) {
+        return loop.advance(seconds);
+    }
+
+    /**
+     * Run a number of decay steps right away, whatever the time scale, e.g.
+     * to replay a recorded session
+     *
+     * @param steps The number of steps
+     */
+    public void runSteps(long steps) {
+        for (long i = 0; i < steps; i++) {
+            loop.step();
+        }
+    }
+
+    /**
+     * Continue counting decay steps from the given step without running the
+     * ones in between
+     *
+     * @param step The step to continue from
+     */
+    public void skipTo(long step) {
+        loop.skipTo(step);
+    }
+
+    public void pause() {
+        loop.pause();
+    }
+
+    public void resume() {
+        loop.resume();
+    }
+
+    /**
+     * @param timeScale Game seconds per wall-clock second
+     */
+    public void setTimeScale(double timeScale) {
+        loop.setTimeScale(timeScale);
+    }
+
+    /**
+     * @return true if every stat of the pet is at 0
+     */
+    public boolean isGameOver() {
+        int stats = pet.getStats(); // One read, so the four stats are from the same moment
+        return Pet.stat(stats, Pet.HUNGER) == 0 && Pet.stat(stats, Pet.FUN) == 0 && Pet.stat(stats, Pet.SLEEP) == 0
+                && Pet.stat(stats, Pet.GROOMING) == 0;
+    }
+
+    private void onStep(long step, int changedStats, int stats) {
+        if (listener != null) {
+            listener.onDecay(changedStats);
+        }
+        // Thresholds can only be crossed by a stat that changed, check the values the decay produced
+        if (changedStats != 0) {
+            checkThresholds(stats);
+        }
+    }
+
+    /**
+     * Compare the current stats with the thresholds as of the last check
+     */
+    private void checkThresholds() {
+        checkThresholds(pet.getStats());
+    }
+
+    /**
+     * Compare the stats with the thresholds as of the last check, and tell the
+     * listener about each one crossed
+     *
+     * @param stats A packed snapshot of the stats
+     */
+    private void checkThresholds(int stats) {
+        int low = 0, empty = 0;
+        for (int stat : STATS) {
+            int value = Pet.stat(stats, stat);
+            if (value == 0) {
+                empty |= stat;
+            }
+            if (value <= LOW_STAT) {
+                low |= stat;
+            }
+        }
+        int newlyLow = low & ~lowStats & ~empty; // A stat that went straight to 0 is only reported as empty
+        int newlyEmpty = empty & ~emptyStats;
+        lowStats = low;
+        emptyStats = empty;
+        if (listener == null || (newlyLow | newlyEmpty) == 0) {
+            return;
+        }
+
+        for (int stat : STATS) {
+            if ((newlyLow & stat) != 0) {
+                listener.onStatLow(stat, Pet.stat(stats, stat));
+            } else if ((newlyEmpty & stat) != 0) {
+                listener.onStatEmpty(stat);
+            }
+        }
+        if (empty == ALL_STATS && !gameOver) {
+            gameOver = true;
+            listener.onGameOver();
+        }
+    }
+
+    // =================== SAVING ===================
+
+    /**
+     * Build a journal record of the pet stats, level and inventory items that
+     * changed since the last call, and mark them as saved
+     *
+     * @param action The action that changed the state
+     * @return The record, empty if nothing changed
+     */
+    public SaveJournal.Entry takeChanges(String action) {
+        // Stamped with the step, so last_played only moves on by whole decay steps
+        SaveJournal.Entry entry = new SaveJournal.Entry(action, getStep() * 1000);
+        // The stats and dirty bits are read and marked as saved in one step,
+        // a change made on another thread afterwards stays dirty for the next call
+        int stats = pet.takeStats();
+        int dirtyStats = Pet.dirtyStats(stats);
+        if ((dirtyStats & Pet.HUNGER) != 0) {
+            entry.put("hunger", Pet.stat(stats, Pet.HUNGER));
+        }
+        if ((dirtyStats & Pet.FUN) != 0) {
+            entry.put("fun", Pet.stat(stats, Pet.FUN));
+        }
+        if ((dirtyStats & Pet.SLEEP) != 0) {
+            entry.put("sleep", Pet.stat(stats, Pet.SLEEP));
+        }
+        if ((dirtyStats & Pet.GROOMING) != 0) {
+            entry.put("grooming", Pet.stat(stats, Pet.GROOMING));
+        }
+        if (playerLevel != savedLevel) {
+            entry.put("level", playerLevel);
+        }
+        BitSet dirtyItems = inventory.getDirtyItems();
+        for (int itemId = dirtyItems.nextSetBit(0); itemId >= 0; itemId = dirtyItems.nextSetBit(itemId + 1)) {
+            entry.item(ItemRegistry.getName(itemId), inventory.getQuantity(itemId));
+        }
+
+        inventory.clearDirtyItems();
+        savedLevel = playerLevel;
+        return entry;
+    }
+
+    /**
+     * Copy the username, pet details and play time into the save object
+     *
+     * Stats, inventory and level are not copied, they reach the save through
+     * the journal records from takeChanges
+     *
+     * @param saveObject The save object to update
+     */
+    @SuppressWarnings("unchecked")
+    public void writeTo(JSONObject saveObject) {
+        // Update username
+        saveObject.put("username", username);
+        System.out.println("Username updated: " + username);
+
+        // Update pet data
+        JSONObject petData = (JSONObject) saveObject.get("pet");
+        if (petData != null) {
+            petData.put("name", pet.getName());
+            petData.put("type", pet.getType());
+            System.out.println("Pet data updated: " + pet.getName() + " (" + pet.getType() + ")");
+        }
+
+        // Update game progress
+        JSONObject gameProgress = (JSONObject) saveObject.get("game_progress");
+        if (gameProgress != null) {
+            gameProgress.put("last_played", OfflineProgress.lastPlayed(getStep())); // The step the stats are decayed up to
+            System.out.println("Last played: " + gameProgress.get("last_played"));
+        }
+    }
+
+    // =================== GETTERS AND SETTERS ===================
+
+    /**
+     * Set the listener, and tell it right away about the stats that are
+     * already low or empty, and about game over if every stat is already 0
+     *
+     * @param listener The listener
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+        lowStats = 0;
+        emptyStats = 0;
+        checkThresholds();
+    }
+
+    /**
+     * @param recorder The recorder to write every action to, or null to stop
+     *                 recording
+     */
+    public void setRecorder(SessionRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Pet getPet() {
+        return pet;
+    }
+
+    public Species getSpecies() {
+        return species;
+    }
+
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    public int getPlayerLevel() {
+        return playerLevel;
+    }
+
+    /**
+     * @return The number of decay steps run, including the time away
+     */
+    public long getStep() {
+        return loop.getStep();
+    }
+}
@@ -0,0 +1,66 @@
+import org.json.simple.JSONObject;
+import java.io.IOException;
+
+/**
+ * SaveCodec turns a save object into the bytes of its shard and back.
+ * 
+ * The codec is picked once per deployment with the animora.save.format system
+ * property: "json" (the default, readable and easy to debug) or "binary" (a
+ * compact format for large numbers of saves). Saves are always handed around
+ * as JSONObjects, only the bytes on disk change.
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SaveCodec {
+    String FORMAT_PROPERTY = "animora.save.format";
+
+    /**
+     * Encode a save object
+     * 
+     * @param save The save object
+     * @return The encoded save
+     */
+    byte[] encode(JSONObject save);
+
+    /**
+     * Decode a save object
+     * 
+     * @param data The encoded save
+     * @return The save object
+     * @throws IOException if the data is not a valid save
+     */
+    JSONObject decode(byte[] data) throws IOException;
+
+    /**
+     * @return The file extension of shards in this format, e.g. ".json"
+     */
+    String getFileExtension();
+
+    /**
+     * Get the codec for a format name
+     * 
+     * @param format "json" or "binary"
+     * @return The codec for the format
+     */
+    static SaveCodec forFormat(String format) {
+        switch (format.toLowerCase()) {
+            case "json":
+                return new JsonSaveCodec();
+            case "binary":
+                return new BinarySaveCodec();
+            default:
+                throw new IllegalArgumentException("Unknown save format: " + format);
+        }
+    }
+
+    /**
+     * Get the codec selected by the animora.save.format system property
+     * 
+     * @return The selected codec, JSON if the property is not set
+     */
+    static SaveCodec fromSystemProperty() {
+        return forFormat(System.getProperty(FORMAT_PROPERTY, "json"));
+    }
+}
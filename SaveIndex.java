@@ -0,0 +1,122 @@
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * SaveIndex keeps the header of every save in savedata/saves/index.json so
+ * the load screen can list the saves without reading any save shard.
+ * 
+ * The save store updates the entry of a save each time the save is written,
+ * so the index only ever holds a few short fields per save.
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class SaveIndex {
+    private static final int INDEX_VERSION = 1;
+
+    private final File indexFile;
+    private final TreeMap<Integer, SaveSummary> summaries = new TreeMap<>();
+
+    /**
+     * Load the index from the given file
+     * 
+     * @param indexFile The index file
+     */
+    public SaveIndex(File indexFile) {
+        this.indexFile = indexFile;
+        load();
+    }
+
+    /**
+     * Check if the index file exists on disk
+     * 
+     * @return true if the index file exists
+     */
+    public boolean exists() {
+        return indexFile.exists();
+    }
+
+    /**
+     * Update the entry of one save and write the index
+     * 
+     * @param summary The new header of the save
+     * @throws IOException if the index could not be written
+     */
+    public synchronized void update(SaveSummary summary) throws IOException {
+        summaries.put(summary.getSaveId(), summary);
+        write();
+    }
+
+    /**
+     * Replace every entry of the index and write it
+     * 
+     * @param all The headers of all saves
+     * @throws IOException if the index could not be written
+     */
+    public synchronized void rebuild(List<SaveSummary> all) throws IOException {
+        summaries.clear();
+        for (SaveSummary summary : all) {
+            summaries.put(summary.getSaveId(), summary);
+        }
+        write();
+    }
+
+    /**
+     * Get the headers of all saves, ordered by save id
+     * 
+     * @return The list of save headers
+     */
+    public synchronized List<SaveSummary> getSummaries() {
+        return new ArrayList<>(summaries.values());
+    }
+
+    /**
+     * Read the index file, if there is one
+     */
+    private void load() {
+        if (!indexFile.exists()) {
+            return;
+        }
+
+        JSONParser parser = new JSONParser();
+        try (FileReader reader = new FileReader(indexFile)) {
+            JSONObject index = (JSONObject) parser.parse(reader);
+            JSONArray records = (JSONArray) index.get("saves");
+            if (records != null) {
+                for (Object obj : records) {
+                    SaveSummary summary = SaveSummary.fromJSON((JSONObject) obj);
+                    summaries.put(summary.getSaveId(), summary);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to read save index: " + e.getMessage());
+            summaries.clear();
+        }
+    }
+
+    /**
+     * Write every entry to the index file
+     * 
+     * @throws IOException if the index could not be written
+     */
+    @SuppressWarnings("unchecked")
+    private void write() throws IOException {
+        JSONArray records = new JSONArray();
+        for (SaveSummary summary : summaries.values()) {
+            records.add(summary.toJSON());
+        }
+        JSONObject index = new JSONObject();
+        index.put("version", INDEX_VERSION);
+        index.put("saves", records);
+
+        ShardedSaveStore.writeAtomically(indexFile, index.toJSONString());
+    }
+}
@@ -0,0 +1,443 @@
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SaveJournal is an append-only write-ahead log that sits next to each save
+ * shard in the save store.
+ *
+ * Every action in the game (feed, bath, play, sleep, shop purchase, stat decay)
+ * appends one short line to savedata/saves/save_N.journal, for example:
+ *
+ * 1733300000000 feed hunger=8 level=21 item:food3=0
+ *
+ * The line holds the time of the action, the action name and the new values of
+ * only the fields it changed. Values are absolute, so folding the journal onto the
+ * snapshot in order always gives the latest state. Item names are URL encoded,
+ * so a name with a space or an "=" in it stays one field.
+ *
+ * A background compactor periodically folds each journal into its snapshot and
+ * deletes the journal. Loading a save reads the snapshot and folds any journal
+ * left behind, so a crash only loses the action that was being written. Only
+ * lines ending in a newline are records, a torn last line is dropped, and a
+ * journal with a bad record in the middle is folded past it but never
+ * compacted, so none of its records are lost.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class SaveJournal {
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String ITEM_PREFIX = "item:";
+
+    private final SaveStore saveStore;
+    private ScheduledExecutorService compactor;
+
+    /**
+     * One journal record, built up field by field before it is appended
+     */
+    public static class Entry {
+        private final String action;
+        private final long timestamp;
+        private final Map<String, Long> fields = new LinkedHashMap<>();
+
+        /**
+         * @param action The name of the action, e.g. "feed" or "decay"
+         */
+        public Entry(String action) {
+            this(action, System.currentTimeMillis());
+        }
+
+        /**
+         * @param action    The name of the action, e.g. "feed" or "decay"
+         * @param timestamp The time the recorded state belongs to, in epoch
+         *                  milliseconds, which becomes the save's last_played
+         */
+        public Entry(String action, long timestamp) {
+            if (!isWord(action)) {
+                throw new IllegalArgumentException("Journal action must be a single word");
+            }
+            this.action = action;
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * Record the new value of a pet stat or of the level
+         *
+         * @param field The field name (hunger, fun, sleep, grooming or level)
+         * @param value The new value
+         * @return This entry
+         */
+        public Entry put(String field, long value) {
+            if (!isWord(field) || field.contains("=") || field.startsWith(ITEM_PREFIX)) {
+                throw new IllegalArgumentException("Bad journal field: " + field);
+            }
+            fields.put(field, value);
+            return this;
+        }
+
+        /**
+         * Record the new quantity of an inventory item
+         *
+         * @param itemName The name of the item
+         * @param quantity The new quantity
+         * @return This entry
+         */
+        public Entry item(String itemName, long quantity) {
+            fields.put(ITEM_PREFIX + URLEncoder.encode(itemName, StandardCharsets.UTF_8), quantity);
+            return this;
+        }
+
+        /**
+         * @return true if no field was recorded
+         */
+        public boolean isEmpty() {
+            return fields.isEmpty();
+        }
+
+        private String toLine() {
+            StringBuilder line = new StringBuilder();
+            line.append(timestamp).append(' ').append(action);
+            for (Map.Entry<String, Long> field : fields.entrySet()) {
+                line.append(' ').append(field.getKey()).append('=').append(field.getValue());
+            }
+            return line.append('\n').toString();
+        }
+
+        private static boolean isWord(String word) {
+            return word != null && !word.isEmpty() && word.chars().noneMatch(c -> c == ' ' || c == '\n' || c == '\r');
+        }
+    }
+
+    /**
+     * @param saveStore The store holding the save snapshots
+     */
+    public SaveJournal(SaveStore saveStore) {
+        this.saveStore = saveStore;
+    }
+
+    /**
+     * Append a record to the save's journal
+     *
+     * @param saveId The save the action belongs to
+     * @param entry  The record to append
+     */
+    public synchronized void append(int saveId, Entry entry) {
+        append(saveId, Collections.singletonList(entry));
+    }
+
+    /**
+     * Append several records to the save's journal in one write
+     *
+     * @param saveId  The save the actions belong to
+     * @param entries The records to append, in order
+     */
+    public synchronized void append(int saveId, List<Entry> entries) {
+        StringBuilder lines = new StringBuilder();
+        for (Entry entry : entries) {
+            lines.append(entry.toLine());
+        }
+        File journal = getJournalFile(saveId);
+        try {
+            dropTornTail(journal);
+            try (FileWriter writer = new FileWriter(journal, StandardCharsets.UTF_8, true)) {
+                writer.write(lines.toString());
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to append to journal of save " + saveId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a record to a save object held in memory, the same way it is
+     * folded when the journal is read back
+     *
+     * @param save  The save object to update
+     * @param entry The record to apply
+     */
+    public void apply(JSONObject save, Entry entry) {
+        applyRecord(save, entry.toLine().trim());
+    }
+
+    /**
+     * Read a save with any journal records folded onto its snapshot
+     *
+     * @param saveId The save to read
+     * @return The up to date save object, or null if the save does not exist
+     */
+    public synchronized JSONObject readSave(int saveId) {
+        JSONObject save = saveStore.readSave(saveId);
+        if (save != null) {
+            fold(saveId, save);
+        }
+        return save;
+    }
+
+    /**
+     * Write a full snapshot of the save and drop its journal, since every
+     * record in it is now part of the snapshot
+     *
+     * @param save The save object to write
+     * @throws IOException if the snapshot could not be written
+     */
+    public synchronized void writeSnapshot(JSONObject save) throws IOException {
+        saveStore.writeSave(save);
+        getJournalFile(((Number) save.get("save_id")).intValue()).delete();
+    }
+
+    /**
+     * Write a snapshot that was already encoded and drop the journal
+     *
+     * @param saveId  The save id
+     * @param content The save encoded with the store's codec
+     * @param summary The header of the save for the save index
+     * @throws IOException if the snapshot could not be written
+     */
+    synchronized void writeSnapshot(int saveId, byte[] content, SaveSummary summary) throws IOException {
+        saveStore.writeSave(saveId, content, summary);
+        getJournalFile(saveId).delete();
+    }
+
+    /**
+     * Fold the journal of one save into its snapshot
+     *
+     * @param saveId The save to compact
+     */
+    public synchronized void compact(int saveId) {
+        File journal = getJournalFile(saveId);
+        if (!journal.exists()) {
+            return;
+        }
+
+        JSONObject save = saveStore.readSave(saveId);
+        if (save == null) {
+            System.err.println("Dropping journal of missing save " + saveId);
+            journal.delete();
+            return;
+        }
+        if (!fold(saveId, save)) {
+            System.err.println("Not compacting journal of save " + saveId + ", it has bad records");
+            return;
+        }
+
+        try {
+            writeSnapshot(save);
+        } catch (IOException e) {
+            // Keep the journal so the records are not lost
+            System.err.println("Failed to compact journal of save " + saveId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fold every journal in the store into its snapshot
+     */
+    public void compactAll() {
+        for (int saveId : saveStore.getSaveIds()) {
+            compact(saveId);
+        }
+    }
+
+    /**
+     * Start compacting journals in the background
+     *
+     * @param intervalSeconds Seconds between compaction runs
+     */
+    public synchronized void startCompactor(long intervalSeconds) {
+        if (compactor != null) {
+            return;
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "save-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactAll, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the background compactor after one last compaction run
+     */
+    public synchronized void stopCompactor() {
+        if (compactor == null) {
+            return;
+        }
+        compactor.execute(this::compactAll);
+        compactor.shutdown();
+        compactor = null;
+    }
+
+    /**
+     * Apply every record in the save's journal to the save object
+     *
+     * A torn last line, from a crash while it was written, is not a record
+     * and is skipped. A bad record before it is skipped too, and the records
+     * after it are still applied.
+     *
+     * @param saveId The save whose journal to read
+     * @param save   The save object to update
+     * @return true if every record was applied, false if a record was bad or
+     *         the journal could not be read
+     */
+    private boolean fold(int saveId, JSONObject save) {
+        File journal = getJournalFile(saveId);
+        if (!journal.exists()) {
+            return true;
+        }
+
+        String content;
+        try {
+            content = new String(Files.readAllBytes(journal.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Failed to read journal of save " + saveId + ": " + e.getMessage());
+            return false;
+        }
+
+        boolean folded = true;
+        int start = 0;
+        for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+            String line = content.substring(start, end);
+            start = end + 1;
+            try {
+                applyRecord(save, line);
+            } catch (RuntimeException e) {
+                System.err.println("Skipping bad journal record for save " + saveId + ": " + line);
+                folded = false;
+            }
+        }
+        if (start < content.length()) {
+            System.err.println("Ignoring torn journal record for save " + saveId + ": " + content.substring(start));
+        }
+        return folded;
+    }
+
+    /**
+     * Apply one journal line to the save object, or nothing if any part of it
+     * is bad
+     *
+     * @param save The save object to update
+     * @param line The journal line
+     * @throws IllegalArgumentException if the line is not a valid record
+     */
+    @SuppressWarnings("unchecked")
+    private void applyRecord(JSONObject save, String line) {
+        String[] parts = line.split(" ");
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Truncated record");
+        }
+        long timestamp = Long.parseLong(parts[0]);
+        List<String> fields = new ArrayList<>();
+        List<Long> values = new ArrayList<>();
+        for (int i = 2; i < parts.length; i++) {
+            int separator = parts[i].indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Bad field " + parts[i]);
+            }
+            fields.add(parts[i].substring(0, separator));
+            values.add(Long.parseLong(parts[i].substring(separator + 1)));
+        }
+
+        JSONObject pet = (JSONObject) save.get("pet");
+        JSONObject stats = pet == null ? null : (JSONObject) pet.get("stats");
+        JSONObject gameProgress = (JSONObject) save.get("game_progress");
+
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            long value = values.get(i);
+            if (field.startsWith(ITEM_PREFIX)) {
+                setItemQuantity(save, URLDecoder.decode(field.substring(ITEM_PREFIX.length()), StandardCharsets.UTF_8),
+                        value);
+            } else if (field.equals("level")) {
+                if (gameProgress != null) {
+                    gameProgress.put("level", value);
+                }
+            } else if (stats != null) {
+                stats.put(field, value);
+            }
+        }
+
+        if (gameProgress != null) {
+            gameProgress.put("last_played",
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()).toString());
+        }
+    }
+
+    /**
+     * Cut a torn last line off the journal, so the next record starts on a
+     * line of its own instead of completing it
+     *
+     * @param journal The journal file
+     * @throws IOException if the journal could not be read or cut
+     */
+    private static void dropTornTail(File journal) throws IOException {
+        if (!journal.exists()) {
+            return;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+            long end = file.length();
+            while (end > 0) {
+                file.seek(end - 1);
+                if (file.read() == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < file.length()) {
+                System.err.println("Dropping torn journal record from " + journal);
+                file.setLength(end);
+            }
+        }
+    }
+
+    /**
+     * Set the quantity of an item in the save's inventory, adding the item if it
+     * is not there yet
+     *
+     * @param save     The save object to update
+     * @param itemName The name of the item
+     * @param quantity The new quantity
+     */
+    @SuppressWarnings("unchecked")
+    private void setItemQuantity(JSONObject save, String itemName, long quantity) {
+        JSONArray inventory = (JSONArray) save.get("inventory");
+        if (inventory == null) {
+            inventory = new JSONArray();
+            save.put("inventory", inventory);
+        }
+
+        for (Object obj : inventory) {
+            JSONObject item = (JSONObject) obj;
+            if (itemName.equalsIgnoreCase((String) item.get("name"))) {
+                item.put("quantity", quantity);
+                return;
+            }
+        }
+
+        JSONObject item = new JSONObject();
+        item.put("name", itemName);
+        item.put("quantity", quantity);
+        inventory.add(item);
+    }
+
+    private File getJournalFile(int saveId) {
+        return new File(saveStore.getDirectory(), "save_" + saveId + JOURNAL_SUFFIX);
+    }
+}
@@ -0,0 +1,220 @@
+import org.json.simple.JSONObject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * SaveRepository is the one place the screens get their saves from.
+ * 
+ * It owns the save store and the save journal and keeps every save it has
+ * read in memory, so going from New Game to Choose Pet to Gameplay reads the
+ * save from disk at most once and every screen sees the same save object.
+ * 
+ * Reads go through the cache: a save is read from its shard (with its
+ * journal folded in) the first time it is asked for. Writes are deferred: a
+ * changed save is only marked dirty, and dirty saves are written when they
+ * are flushed, when the game session ends, or when the program exits.
+ * 
+ * Cached saves are only changed while holding the repository's lock, and a
+ * flush encodes the save under the lock and writes it outside it, so
+ * a background write never holds up the game thread.
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class SaveRepository {
+    private static SaveRepository instance;
+
+    private final SaveStore saveStore;
+    private final SaveJournal saveJournal;
+    private final Map<Integer, JSONObject> cache = new HashMap<>();
+    private final Set<Integer> dirty = new HashSet<>();
+
+    /**
+     * Get the shared repository, creating it on first use
+     * 
+     * @return The shared save repository
+     */
+    public static synchronized SaveRepository getInstance() {
+        if (instance == null) {
+            instance = new SaveRepository(SaveStore.open());
+        }
+        return instance;
+    }
+
+    /**
+     * Create a repository over the given store
+     * 
+     * @param saveStore The store holding the saves
+     */
+    public SaveRepository(SaveStore saveStore) {
+        this.saveStore = saveStore;
+        this.saveJournal = new SaveJournal(saveStore);
+
+        // Write deferred changes if the program exits without flushing
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushAll, "save-repository-flush"));
+    }
+
+    /**
+     * Get a save, reading it from disk only if it is not cached yet
+     * 
+     * The returned object is shared with every other screen. Only change it
+     * through editSave, so the change is locked and gets written.
+     * 
+     * @param saveId The save id
+     * @return The save object, or null if no such save exists
+     */
+    public synchronized JSONObject getSave(int saveId) {
+        JSONObject save = cache.get(saveId);
+        if (save == null) {
+            save = saveJournal.readSave(saveId);
+            if (save != null) {
+                cache.put(saveId, save);
+            }
+        }
+        return save;
+    }
+
+    /**
+     * Add a brand new save and write it right away, so it shows up in the
+     * manifest and the save index
+     * 
+     * The save is cached as it reads back from disk, not as the object passed
+     * in, so its numbers are Longs like in every other loaded save even if the
+     * caller put ints.
+     * 
+     * @param save The new save object, must contain a save_id
+     * @throws IOException if the save could not be written
+     */
+    public synchronized void addSave(JSONObject save) throws IOException {
+        int saveId = ((Number) save.get("save_id")).intValue();
+        byte[] content = saveStore.getCodec().encode(save);
+        JSONObject loaded = saveStore.getCodec().decode(content);
+        saveJournal.writeSnapshot(saveId, content, SaveSummary.fromSave(loaded));
+        cache.put(saveId, loaded);
+        dirty.remove(saveId);
+    }
+
+    /**
+     * Change a cached save and mark it for the next flush
+     * 
+     * @param saveId The save to change
+     * @param edit   The change, run while holding the repository's lock
+     * @return true if the save exists
+     */
+    public synchronized boolean editSave(int saveId, Consumer<JSONObject> edit) {
+        JSONObject save = getSave(saveId);
+        if (save == null) {
+            return false;
+        }
+        edit.accept(save);
+        dirty.add(saveId);
+        return true;
+    }
+
+    /**
+     * Apply a game action to the cached save and mark it for the next flush
+     * 
+     * @param saveId The save the action belongs to
+     * @param entry  The journal record of the action
+     */
+    public synchronized void applyAction(int saveId, SaveJournal.Entry entry) {
+        JSONObject save = cache.get(saveId);
+        if (save != null) {
+            saveJournal.apply(save, entry);
+            dirty.add(saveId);
+        }
+    }
+
+    /**
+     * Append game actions to the save's journal on disk
+     * 
+     * @param saveId  The save the actions belong to
+     * @param entries The journal records of the actions, in order
+     */
+    public void appendToJournal(int saveId, List<SaveJournal.Entry> entries) {
+        saveJournal.append(saveId, entries);
+    }
+
+    /**
+     * Write a save if it has unwritten changes
+     * 
+     * @param saveId The save to write
+     */
+    public void flush(int saveId) {
+        byte[] content;
+        SaveSummary summary;
+        synchronized (this) {
+            if (!dirty.remove(saveId)) {
+                return;
+            }
+            JSONObject save = cache.get(saveId);
+            content = saveStore.getCodec().encode(save);
+            summary = SaveSummary.fromSave(save);
+        }
+
+        try {
+            saveJournal.writeSnapshot(saveId, content, summary);
+        } catch (IOException e) {
+            System.err.println("Failed to write save " + saveId + ": " + e.getMessage());
+            synchronized (this) {
+                dirty.add(saveId); // Try again on the next flush
+            }
+        }
+    }
+
+    /**
+     * Write every save with unwritten changes
+     */
+    public void flushAll() {
+        List<Integer> saveIds;
+        synchronized (this) {
+            saveIds = new ArrayList<>(dirty);
+        }
+        for (int saveId : saveIds) {
+            flush(saveId);
+        }
+    }
+
+    /**
+     * Get the header of every save from the save index
+     * 
+     * @return The list of save headers, ordered by save id
+     */
+    public List<SaveSummary> getSaveSummaries() {
+        return saveStore.getSaveSummaries();
+    }
+
+    /**
+     * Hand out a new save id from the store's persisted counter
+     * 
+     * @return The new save id
+     * @throws IOException if the counter could not be written
+     */
+    public int allocateSaveId() throws IOException {
+        return saveStore.allocateSaveId();
+    }
+
+    /**
+     * Start folding journals into their saves in the background
+     * 
+     * @param intervalSeconds Seconds between compaction runs
+     */
+    public void startCompactor(long intervalSeconds) {
+        saveJournal.startCompactor(intervalSeconds);
+    }
+
+    /**
+     * Write every changed save and stop the background compactor
+     */
+    public void endSession() {
+        flushAll();
+        saveJournal.stopCompactor();
+    }
+}
@@ -0,0 +1,127 @@
+import org.json.simple.JSONObject;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * SaveStore is where saves are kept on disk.
+ * 
+ * There are two backends, picked once per deployment with the
+ * animora.save.backend system property:
+ * - "sharded" (the default): one file per save, see ShardedSaveStore
+ * - "mapped": one fixed-size record per save in a memory-mapped file, see
+ *   MappedSaveStore
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SaveStore {
+    String BACKEND_PROPERTY = "animora.save.backend";
+
+    /**
+     * Read a single save
+     * 
+     * @param saveId The save id to read
+     * @return The save object, or null if no such save exists
+     */
+    JSONObject readSave(int saveId);
+
+    /**
+     * Write a single save, registering its id if it is new
+     * 
+     * @param save The save object, must contain a save_id
+     * @throws IOException if the save could not be written
+     */
+    void writeSave(JSONObject save) throws IOException;
+
+    /**
+     * Write a save that was already encoded with this store's codec
+     * 
+     * @param saveId  The save id
+     * @param content The encoded save
+     * @param summary The header of the save
+     * @throws IOException if the save could not be written
+     */
+    void writeSave(int saveId, byte[] content, SaveSummary summary) throws IOException;
+
+    /**
+     * Get the ids of all saves, in ascending order
+     * 
+     * @return The list of save ids
+     */
+    List<Integer> getSaveIds();
+
+    /**
+     * Get the header of every save, without reading whole saves
+     * 
+     * @return The list of save headers, ordered by save id
+     */
+    List<SaveSummary> getSaveSummaries();
+
+    /**
+     * Get the highest save id in use
+     * 
+     * @return The highest save id, or 0 if there are no saves
+     */
+    int getHighestSaveId();
+
+    /**
+     * Hand out a new save id, without reading any save
+     * 
+     * Ids come from a persisted counter, so allocating is constant time and
+     * an id is never handed out twice.
+     * 
+     * @return The new save id
+     * @throws IOException if the counter could not be written
+     */
+    int allocateSaveId() throws IOException;
+
+    /**
+     * Get the codec saves are encoded with before they are written
+     * 
+     * @return The save codec
+     */
+    SaveCodec getCodec();
+
+    /**
+     * Get the directory the store keeps its files in, save journals are kept
+     * next to them
+     * 
+     * @return The save directory
+     */
+    File getDirectory();
+
+    /**
+     * Write a save as readable JSON, whatever format the store uses, for
+     * exporting or debugging a save
+     * 
+     * @param saveId The save to export
+     * @param target The file to write
+     * @throws IOException if the save does not exist or could not be written
+     */
+    default void exportSave(int saveId, File target) throws IOException {
+        JSONObject save = readSave(saveId);
+        if (save == null) {
+            throw new IOException("No save found with save_id " + saveId);
+        }
+        ShardedSaveStore.writeAtomically(target, save.toJSONString());
+    }
+
+    /**
+     * Open the backend selected by the animora.save.backend system property
+     * 
+     * @return The save store
+     */
+    static SaveStore open() {
+        String backend = System.getProperty(BACKEND_PROPERTY, "sharded");
+        switch (backend.toLowerCase()) {
+            case "sharded":
+                return new ShardedSaveStore();
+            case "mapped":
+                return new MappedSaveStore();
+            default:
+                throw new IllegalArgumentException("Unknown save backend: " + backend);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * SaveStreamReader reads saves out of a {"saves":[...]} file one token at a
+ * time instead of parsing the whole file into JSON objects.
+ *
+ * While it walks the saves array it copies the current save's text into a
+ * reused buffer and watches for its "save_id". As soon as the id is known not
+ * to match, the rest of that save is skipped without building anything. Only
+ * the save that is asked for is handed to JSONParser, and reading stops right
+ * after it.
+ *
+ * The reader is used for the legacy savefile.json, both to migrate it one save
+ * at a time and to seek a single save while the file is still around.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class SaveStreamReader {
+    private static final int ANY_SAVE = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int limit = 0;
+    private int offset = 0; // Characters consumed so far, for error messages
+
+    // Text of the save being scanned, reused for every save
+    private final StringBuilder capture = new StringBuilder();
+    private boolean capturing = false;
+
+    // Last key read, reused for every key
+    private final StringBuilder key = new StringBuilder();
+
+    private boolean inSavesArray = false;
+    private boolean finished = false;
+
+    /**
+     * @param reader The reader over the save file, the caller closes it
+     */
+    public SaveStreamReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Seek the save with the given id, stopping as soon as it is found
+     *
+     * @param reader The reader over the save file
+     * @param saveId The save id to look for
+     * @return The save object, or null if the file has no such save
+     * @throws IOException    if the file could not be read
+     * @throws ParseException if the file is not valid JSON
+     */
+    public static JSONObject findSave(Reader reader, int saveId) throws IOException, ParseException {
+        return new SaveStreamReader(reader).nextSave(saveId);
+    }
+
+    /**
+     * Read the next save in the file
+     *
+     * @return The next save object, or null when there are no more saves
+     * @throws IOException    if the file could not be read
+     * @throws ParseException if the file is not valid JSON
+     */
+    public JSONObject nextSave() throws IOException, ParseException {
+        return nextSave(ANY_SAVE);
+    }
+
+    /**
+     * Read up to the next save with the given id, skipping the others
+     *
+     * @param saveId The save id to look for, or ANY_SAVE for the next save
+     * @return The save object, or null if no more saves match
+     * @throws IOException    if the file could not be read
+     * @throws ParseException if the file is not valid JSON
+     */
+    private JSONObject nextSave(int saveId) throws IOException, ParseException {
+        if (!inSavesArray && !seekSavesArray()) {
+            return null;
+        }
+
+        while (!finished) {
+            int c = peekNonWhitespace();
+            if (c == ']') {
+                next();
+                finished = true;
+                break;
+            }
+            if (c == ',') {
+                next();
+                continue;
+            }
+            if (c != '{') {
+                throw unexpected(c);
+            }
+
+            if (scanSave(saveId)) {
+                return (JSONObject) new JSONParser().parse(capture.toString());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Move to the first element of the top level "saves" array
+     *
+     * @return true if the array was found
+     */
+    private boolean seekSavesArray() throws IOException, ParseException {
+        if (peekNonWhitespace() != '{') {
+            throw unexpected(peek());
+        }
+        next();
+
+        while (true) {
+            int c = peekNonWhitespace();
+            if (c == '}' || c == -1) {
+                finished = true;
+                return false;
+            }
+            if (c == ',') {
+                next();
+                continue;
+            }
+
+            readKey();
+            expect(':');
+            if (keyIs("saves")) {
+                expect('[');
+                inSavesArray = true;
+                return true;
+            }
+            skipValue();
+        }
+    }
+
+    /**
+     * Scan one save object, copying its text while it may still match
+     *
+     * @param saveId The save id to look for, or ANY_SAVE
+     * @return true if the save matched and its full text is in the capture
+     */
+    private boolean scanSave(int saveId) throws IOException, ParseException {
+        capture.setLength(0);
+        capturing = true;
+        boolean matched = saveId == ANY_SAVE;
+
+        next(); // '{'
+        while (true) {
+            int c = peekNonWhitespace();
+            if (c == '}') {
+                next();
+                break;
+            }
+            if (c == ',') {
+                next();
+                continue;
+            }
+
+            readKey();
+            expect(':');
+            if (saveId != ANY_SAVE && keyIs("save_id")) {
+                matched = readNumber() == saveId;
+                // Stop copying a save that is going to be skipped
+                capturing = matched;
+            } else {
+                skipValue();
+            }
+        }
+
+        capturing = false;
+        return matched;
+    }
+
+    /**
+     * Read an object key into the reused key buffer
+     */
+    private void readKey() throws IOException, ParseException {
+        key.setLength(0);
+        expect('"');
+        while (true) {
+            int c = next();
+            if (c == -1) {
+                throw unexpected(c);
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                c = next();
+            }
+            key.append((char) c);
+        }
+    }
+
+    /**
+     * Read a whole number value without allocating
+     *
+     * @return The number, or Long.MIN_VALUE if the value is not a whole number
+     */
+    private long readNumber() throws IOException, ParseException {
+        peekNonWhitespace();
+        long value = 0;
+        boolean negative = false;
+        boolean digits = false;
+
+        if (peek() == '-') {
+            negative = true;
+            next();
+        }
+        while (peek() >= '0' && peek() <= '9') {
+            value = value * 10 + (next() - '0');
+            digits = true;
+        }
+        if (!digits || !isDelimiter(peek())) {
+            skipValue();
+            return Long.MIN_VALUE;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Skip one JSON value of any kind, tracking only the nesting depth
+     */
+    private void skipValue() throws IOException, ParseException {
+        int c = peekNonWhitespace();
+        if (c == '"') {
+            next();
+            skipStringBody();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = next();
+                if (c == -1) {
+                    throw unexpected(c);
+                } else if (c == '"') {
+                    skipStringBody();
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        } else {
+            // Number, true, false or null
+            while (!isDelimiter(peek())) {
+                next();
+            }
+        }
+    }
+
+    /**
+     * Skip the rest of a string whose opening quote was already read
+     */
+    private void skipStringBody() throws IOException, ParseException {
+        while (true) {
+            int c = next();
+            if (c == -1) {
+                throw unexpected(c);
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                next();
+            }
+        }
+    }
+
+    private ParseException unexpected(int c) {
+        return new ParseException(offset, ParseException.ERROR_UNEXPECTED_CHAR,
+                c == -1 ? "end of file" : Character.valueOf((char) c));
+    }
+
+    private boolean keyIs(String name) {
+        if (key.length() != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (key.charAt(i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expect(char expected) throws IOException, ParseException {
+        if (peekNonWhitespace() != expected) {
+            throw unexpected(peek());
+        }
+        next();
+    }
+
+    private boolean isDelimiter(int c) {
+        return c == -1 || c == ',' || c == '}' || c == ']' || Character.isWhitespace(c);
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (peek() != -1 && Character.isWhitespace(peek())) {
+            next();
+        }
+        return peek();
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    private int next() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+            offset++;
+            if (capturing) {
+                capture.append((char) c);
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,115 @@
+import org.json.simple.JSONObject;
+
+/**
+ * Header of a save: the few fields the load screen shows for each save,
+ * without the pet stats or the inventory.
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class SaveSummary {
+    private final int saveId;
+    private final String username;
+    private final String petName;
+    private final String petType;
+    private final int level;
+    private final String lastPlayed;
+
+    /**
+     * Constructor for a save summary
+     * 
+     * @param saveId     The save id
+     * @param username   The player's username
+     * @param petName    The pet's name
+     * @param petType    The pet's type
+     * @param level      The player level
+     * @param lastPlayed When the save was last played
+     */
+    public SaveSummary(int saveId, String username, String petName, String petType, int level,
+            String lastPlayed) {
+        this.saveId = saveId;
+        this.username = username != null ? username : "";
+        this.petName = petName != null ? petName : "";
+        this.petType = petType != null ? petType : "";
+        this.level = level;
+        this.lastPlayed = lastPlayed != null ? lastPlayed : "";
+    }
+
+    /**
+     * Build the summary of a full save object
+     * 
+     * @param save The save object
+     * @return The summary of the save
+     */
+    public static SaveSummary fromSave(JSONObject save) {
+        JSONObject pet = (JSONObject) save.get("pet");
+        JSONObject gameProgress = (JSONObject) save.get("game_progress");
+        Object level = gameProgress != null ? gameProgress.get("level") : null;
+
+        return new SaveSummary(
+                ((Number) save.get("save_id")).intValue(),
+                (String) save.get("username"),
+                pet != null ? (String) pet.get("name") : null,
+                pet != null ? (String) pet.get("type") : null,
+                level instanceof Number ? ((Number) level).intValue() : 1,
+                gameProgress != null ? (String) gameProgress.get("last_played") : null);
+    }
+
+    /**
+     * Read a summary from its index record
+     * 
+     * @param record The index record
+     * @return The summary
+     */
+    public static SaveSummary fromJSON(JSONObject record) {
+        return new SaveSummary(
+                ((Number) record.get("save_id")).intValue(),
+                (String) record.get("username"),
+                (String) record.get("pet_name"),
+                (String) record.get("pet_type"),
+                ((Number) record.get("level")).intValue(),
+                (String) record.get("last_played"));
+    }
+
+    /**
+     * Convert the summary to its index record
+     * 
+     * @return The index record
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject toJSON() {
+        JSONObject record = new JSONObject();
+        record.put("save_id", saveId);
+        record.put("username", username);
+        record.put("pet_name", petName);
+        record.put("pet_type", petType);
+        record.put("level", level);
+        record.put("last_played", lastPlayed);
+        return record;
+    }
+
+    public int getSaveId() {
+        return saveId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPetName() {
+        return petName;
+    }
+
+    public String getPetType() {
+        return petType;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getLastPlayed() {
+        return lastPlayed;
+    }
+}
@@ -0,0 +1,239 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * SessionRecorder writes every player action of a game session to a compact
+ * binary file, so the session can be played back later by SessionReplayer.
+ *
+ * The file starts with the state of the simulation when recording began: the
+ * username, the pet, its stats, the level, the inventory and the decay step.
+ * Each action after that is one record holding an action code, the decay steps
+ * since the previous record, the wall-clock milliseconds since the previous
+ * record and the action's argument, all as varints. A care action is usually
+ * 4 bytes. The steps say exactly where the action fell between decay steps,
+ * so replaying the records in order gives back the same session. The file
+ * ends with the final stats and level, which the replayer checks its result
+ * against.
+ *
+ * Recording is off unless the animora.session.record system property is
+ * true. Recordings are written to savedata/sessions.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class SessionRecorder implements AutoCloseable {
+    public static final String RECORD_PROPERTY = "animora.session.record";
+
+    static final byte[] MAGIC = { 'A', 'R' };
+    static final int VERSION = 1;
+
+    // Record codes
+    static final int END = 0;
+    static final int CARE = 1;
+    static final int USE_ITEM = 2;
+    static final int BUY_ITEM = 3;
+
+    private static final File SESSION_DIRECTORY = new File("savedata/sessions");
+
+    private final OutputStream out;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(16); // Reused for every record
+    private long lastStep;
+    private long lastMillis;
+    private boolean closed = false;
+
+    /**
+     * Start recording a session to a stream
+     *
+     * @param out        The stream to write to, closed with the recorder
+     * @param simulation The simulation at the start of the session
+     * @throws IOException if the header could not be written
+     */
+    public SessionRecorder(OutputStream out, PetSimulation simulation) throws IOException {
+        this.out = out;
+        this.lastStep = simulation.getStep();
+        this.lastMillis = System.currentTimeMillis();
+        writeHeader(simulation);
+    }
+
+    /**
+     * Start recording a session of a save to a new file in savedata/sessions
+     *
+     * @param saveId     The save being played
+     * @param simulation The simulation at the start of the session
+     * @return The recorder
+     * @throws IOException if the file could not be created
+     */
+    public static SessionRecorder open(int saveId, PetSimulation simulation) throws IOException {
+        if (!SESSION_DIRECTORY.exists() && !SESSION_DIRECTORY.mkdirs()) {
+            throw new IOException("Could not create " + SESSION_DIRECTORY);
+        }
+        File file = new File(SESSION_DIRECTORY, "save_" + saveId + "_" + System.currentTimeMillis() + ".rec");
+        return new SessionRecorder(new BufferedOutputStream(new FileOutputStream(file)), simulation);
+    }
+
+    /**
+     * Record a care action from the keyboard
+     *
+     * @param step The decay step the action happened at
+     * @param stat The stat that was raised
+     */
+    public void recordCare(long step, int stat) {
+        writeRecord(CARE, step, stat);
+    }
+
+    /**
+     * Record an inventory item being used
+     *
+     * @param step   The decay step the action happened at
+     * @param itemId The item id from ItemRegistry
+     */
+    public void recordUseItem(long step, int itemId) {
+        writeRecord(USE_ITEM, step, itemId);
+    }
+
+    /**
+     * Record a shop purchase
+     *
+     * @param step   The decay step the action happened at
+     * @param itemId The item id from ItemRegistry
+     */
+    public void recordBuyItem(long step, int itemId) {
+        writeRecord(BUY_ITEM, step, itemId);
+    }
+
+    /**
+     * Write the end record with the final state of the simulation and close
+     * the file
+     *
+     * @param simulation The simulation at the end of the session
+     */
+    public synchronized void finish(PetSimulation simulation) {
+        if (closed) {
+            return;
+        }
+        try {
+            record.reset();
+            record.write(END);
+            writeUnsigned(record, simulation.getStep() - lastStep);
+            writeUnsigned(record, Math.max(0, System.currentTimeMillis() - lastMillis));
+            Pet pet = simulation.getPet();
+            record.write(pet.getHunger());
+            record.write(pet.getFun());
+            record.write(pet.getSleep());
+            record.write(pet.getGrooming());
+            writeUnsigned(record, simulation.getPlayerLevel());
+            record.writeTo(out);
+        } catch (IOException e) {
+            System.err.println("Failed to finish session recording: " + e.getMessage());
+        }
+        close();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close session recording: " + e.getMessage());
+        }
+    }
+
+    private void writeHeader(PetSimulation simulation) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(256);
+        header.write(MAGIC, 0, MAGIC.length);
+        header.write(VERSION);
+        writeUnsigned(header, lastMillis);
+        writeString(header, simulation.getUsername());
+
+        Pet pet = simulation.getPet();
+        writeString(header, pet.getType());
+        writeString(header, pet.getName());
+        header.write(pet.getHunger());
+        header.write(pet.getFun());
+        header.write(pet.getSleep());
+        header.write(pet.getGrooming());
+        writeUnsigned(header, simulation.getPlayerLevel());
+        writeUnsigned(header, lastStep);
+
+        // Names rather than ids, ids of items outside the catalog change between runs
+        List<InventoryItem> items = simulation.getInventory().getItems();
+        writeUnsigned(header, items.size());
+        for (InventoryItem item : items) {
+            writeString(header, item.getName());
+            writeUnsigned(header, item.getQuantity());
+        }
+        header.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Write one action record and flush it, so a crash keeps every action
+     * before it
+     */
+    private synchronized void writeRecord(int code, long step, int argument) {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        record.reset();
+        record.write(code);
+        writeUnsigned(record, step - lastStep);
+        writeUnsigned(record, Math.max(0, now - lastMillis));
+        if (code == CARE) {
+            writeUnsigned(record, argument);
+        } else {
+            writeItem(record, argument);
+        }
+        lastStep = step;
+        lastMillis = now;
+        try {
+            record.writeTo(out);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to record session action: " + e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Write an item as its catalog id plus one, or 0 and its name for an item
+     * outside the catalog
+     */
+    private static void writeItem(ByteArrayOutputStream out, int itemId) {
+        if (itemId >= 0 && itemId < ItemRegistry.getCatalogSize()) {
+            writeUnsigned(out, itemId + 1L);
+        } else {
+            writeUnsigned(out, 0);
+            writeString(out, itemId >= 0 ? ItemRegistry.getName(itemId) : null);
+        }
+    }
+
+    private static void writeUnsigned(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeUnsigned(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsigned(out, bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,235 @@
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * SessionReplayer rebuilds a game session from a SessionRecorder file.
+ *
+ * It builds a PetSimulation from the state in the file header and then, for
+ * each record, advances the simulation by the recorded number of decay steps
+ * and performs the recorded action. No screen, timer or disk write is
+ * involved, so a session of any length replays as fast as the simulation can
+ * step. When the file has an end record, the replayed stats and level are
+ * checked against the recorded ones.
+ *
+ * Run it with: java SessionReplayer file.rec [...]
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class SessionReplayer {
+    private final InputStream in;
+    private int actions = 0;
+    private long recordedMillis = 0; // Wall-clock length of the recorded session
+    private boolean finished = false;
+    private boolean matches = false;
+
+    /**
+     * @param in The recording, the caller closes it
+     */
+    public SessionReplayer(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Replay a recording file
+     *
+     * @param file The recording
+     * @return The simulation at the end of the session
+     * @throws IOException if the file could not be read or is not a recording
+     */
+    public static PetSimulation replay(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return new SessionReplayer(in).replay();
+        }
+    }
+
+    /**
+     * Replay the whole recording
+     *
+     * A recording cut short by a crash replays up to its last complete record.
+     *
+     * @return The simulation at the end of the session
+     * @throws IOException if the stream could not be read or is not a recording
+     */
+    public PetSimulation replay() throws IOException {
+        PetSimulation simulation = readHeader();
+
+        while (true) {
+            int code = in.read();
+            if (code == -1) {
+                break; // No end record, the session did not close cleanly
+            }
+            try {
+                long steps = readUnsigned();
+                recordedMillis += readUnsigned();
+                simulation.runSteps(steps);
+
+                switch (code) {
+                    case SessionRecorder.CARE:
+                        simulation.care((int) readUnsigned());
+                        break;
+                    case SessionRecorder.USE_ITEM:
+                        simulation.useItem(readItem());
+                        break;
+                    case SessionRecorder.BUY_ITEM:
+                        simulation.buyItem(readItem());
+                        break;
+                    case SessionRecorder.END:
+                        Pet pet = simulation.getPet();
+                        matches = readByte() == pet.getHunger() & readByte() == pet.getFun()
+                                & readByte() == pet.getSleep() & readByte() == pet.getGrooming()
+                                & readUnsigned() == simulation.getPlayerLevel();
+                        finished = true;
+                        return simulation;
+                    default:
+                        throw new IOException("Unknown session record " + code);
+                }
+                actions++;
+            } catch (EOFException e) {
+                System.err.println("Session recording is truncated, replayed " + actions + " actions");
+                break;
+            }
+        }
+        return simulation;
+    }
+
+    /**
+     * @return The number of actions replayed
+     */
+    public int getActions() {
+        return actions;
+    }
+
+    /**
+     * @return The wall-clock length of the recorded session in milliseconds
+     */
+    public long getRecordedMillis() {
+        return recordedMillis;
+    }
+
+    /**
+     * @return true if the recording had an end record
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return true if the replay ended with the recorded stats and level
+     */
+    public boolean matchesRecording() {
+        return matches;
+    }
+
+    private PetSimulation readHeader() throws IOException {
+        for (byte b : SessionRecorder.MAGIC) {
+            if (readByte() != b) {
+                throw new IOException("Not a session recording");
+            }
+        }
+        int version = readByte();
+        if (version != SessionRecorder.VERSION) {
+            throw new IOException("Unsupported session recording version " + version);
+        }
+        readUnsigned(); // Start time
+        String username = readString();
+        String type = readString();
+        String name = readString();
+        int hunger = readByte(), fun = readByte(), sleep = readByte(), grooming = readByte();
+        int level = (int) readUnsigned();
+        long step = readUnsigned();
+
+        Inventory inventory = new Inventory();
+        long items = readUnsigned();
+        for (long i = 0; i < items; i++) {
+            String itemName = readString();
+            int quantity = (int) readUnsigned();
+            inventory.addItem(itemName, quantity);
+        }
+        inventory.clearDirtyItems();
+
+        Pet pet = SpeciesRegistry.createPet(type, name);
+        pet.setHunger(hunger);
+        pet.setFun(fun);
+        pet.setSleep(sleep);
+        pet.setGrooming(grooming);
+        pet.clearDirtyStats();
+
+        PetSimulation simulation = new PetSimulation(username, pet, SpeciesRegistry.get(type), inventory, level);
+        simulation.skipTo(step);
+        return simulation;
+    }
+
+    private int readItem() throws IOException {
+        long id = readUnsigned();
+        if (id > 0) {
+            return (int) id - 1;
+        }
+        String itemName = readString();
+        return itemName != null ? ItemRegistry.register(itemName) : ItemRegistry.UNKNOWN;
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    private long readUnsigned() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in session recording");
+    }
+
+    private String readString() throws IOException {
+        long length = readUnsigned();
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) readByte();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Replay each recording given and report how long it took
+     *
+     * @param args The recording files
+     */
+    public static void main(String[] args) {
+        for (String path : args) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+                long start = System.nanoTime();
+                SessionReplayer replayer = new SessionReplayer(in);
+                PetSimulation simulation = replayer.replay();
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                Pet pet = simulation.getPet();
+                System.out.printf("%s: %d actions, %d steps, %.1f s recorded, replayed in %.3f s, %s%n", path,
+                        replayer.getActions(), simulation.getStep(), replayer.getRecordedMillis() / 1000.0, seconds,
+                        !replayer.isFinished() ? "unfinished" : replayer.matchesRecording() ? "matches" : "MISMATCH");
+                System.out.println("  " + pet.getName() + " (" + pet.getType() + ") hunger " + pet.getHunger()
+                        + ", fun " + pet.getFun() + ", sleep " + pet.getSleep() + ", grooming " + pet.getGrooming()
+                        + ", level " + simulation.getPlayerLevel());
+            } catch (IOException e) {
+                System.err.println("Failed to replay " + path + ": " + e.getMessage());
+            }
+        }
+    }
+}
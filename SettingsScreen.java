@@ -23,6 +23,7 @@ import javafx.scene.control.Label;
  */
 
 public class SettingsScreen extends Application {
+    private final AssetManager.Scope assets = AssetManager.getInstance().newScope(); // Shared images, held while this screen is shown
     private static Scene previousScene;
 
     /**
@@ -77,14 +78,14 @@ public class SettingsScreen extends Application {
         main_menu.setTranslateX(420);
         main_menu.setTranslateY(-810);
 
-        ImageView settingsBoard = new ImageView(new Image("Assets/Inventory/setting_menu.png"));
+        ImageView settingsBoard = new ImageView(assets.acquire("Assets/Inventory/setting_menu.png"));
         settingsBoard.setFitHeight(500);
         settingsBoard.setFitWidth(800);
         settingsBoard.setTranslateX(100);
         settingsBoard.setTranslateY(100);
 
-        Image volume = new Image("Assets/Buttons/volumebtn.png");
-        Image mute = new Image("Assets/Buttons/mutebtn.png");
+        Image volume = assets.acquire("Assets/Buttons/volumebtn.png");
+        Image mute = assets.acquire("Assets/Buttons/mutebtn.png");
         ImageView volumeIcon = new ImageView(volume);
         ImageView muteIcon = new ImageView(mute);
         volumeIcon.setFitHeight(70);
@@ -118,7 +119,7 @@ public class SettingsScreen extends Application {
         muteButton.setTranslateX(300);
         muteButton.setTranslateY(-350);
 
-        Image tutorialButton = new Image("Assets/Buttons/rectanglebtn.png");
+        Image tutorialButton = assets.acquire("Assets/Buttons/rectanglebtn.png");
         ImageView tutorialIcon = new ImageView(tutorialButton);
         tutorialIcon.setFitHeight(70);
         tutorialIcon.setFitWidth(220);
@@ -129,7 +130,7 @@ public class SettingsScreen extends Application {
         tutorialButton1.setTranslateX(550);
         tutorialButton1.setTranslateY(-600);
 
-        Image gameplayButton = new Image("Assets/Buttons/rectanglebtn.png");
+        Image gameplayButton = assets.acquire("Assets/Buttons/rectanglebtn.png");
         ImageView gameplayIcon = new ImageView(gameplayButton);
         gameplayIcon.setFitHeight(70);
         gameplayIcon.setFitWidth(220);
@@ -140,7 +141,7 @@ public class SettingsScreen extends Application {
         gameplayButton1.setTranslateX(550);
         gameplayButton1.setTranslateY(-590);
 
-        Image parentalButton = new Image("Assets/Buttons/rectanglebtn.png");
+        Image parentalButton = assets.acquire("Assets/Buttons/rectanglebtn.png");
         ImageView parentalIcon = new ImageView(parentalButton);
         parentalIcon.setFitHeight(70);
         parentalIcon.setFitWidth(220);
@@ -151,7 +152,7 @@ public class SettingsScreen extends Application {
         parentalButton1.setTranslateX(550);
         parentalButton1.setTranslateY(-580);
 
-        Image mainMenuButton = new Image("Assets/Buttons/rectanglebtn.png");
+        Image mainMenuButton = assets.acquire("Assets/Buttons/rectanglebtn.png");
         ImageView mainMenuIcon = new ImageView(mainMenuButton);
         mainMenuIcon.setFitHeight(90);
         mainMenuIcon.setFitWidth(240);
@@ -162,7 +163,7 @@ public class SettingsScreen extends Application {
         mainMenuButton1.setTranslateX(380);
         mainMenuButton1.setTranslateY(-720);
 
-        Image closeImage = new Image("Assets/Buttons/closebtn.png");
+        Image closeImage = assets.acquire("Assets/Buttons/closebtn.png");
         ImageView closeIcon = new ImageView(closeImage);
         closeIcon.setFitHeight(50);
         closeIcon.setFitWidth(50);
@@ -252,6 +253,7 @@ public class SettingsScreen extends Application {
                 tutorial_title, gameplay_title, parental_title, mainMenuButton1, main_menu, close);
 
         Scene scene = new Scene(layout, 1000, 800);
+        assets.holdWhileShown(stage, scene); // Release the images once the scene is replaced
         scene.getStylesheets().add(getClass().getResource("Styles/SettingsScreen.css").toExternalForm());
         return scene;
     }
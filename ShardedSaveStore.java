@@ -0,0 +1,428 @@
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ShardedSaveStore keeps every save in its own file plus a small manifest
+ * listing the known save ids.
+ *
+ * Layout on disk:
+ * - savedata/saves/manifest.json : {"version":1,"next_save_id":3,"save_ids":[1,2]}
+ * - savedata/saves/save_N.json   : the save object for save_id N, or
+ *                                  save_N.bin with the binary save format
+ * - savedata/saves/index.json    : the header of every save, see SaveIndex
+ *
+ * Reading or writing one save only touches that save's file, so the cost of a
+ * save click no longer grows with the number of profiles. The manifest is only
+ * rewritten when a save id is allocated or a new save id appears.
+ *
+ * Shards are encoded with the SaveCodec picked for the deployment. A shard
+ * left in the other format is still read, and replaced on its next write.
+ *
+ * The first time the store is opened it migrates the old monolithic
+ * savedata/savefile.json into shards and renames the old file so the
+ * migration never runs twice.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class ShardedSaveStore implements SaveStore {
+    public static final String DEFAULT_DIRECTORY = "savedata/saves";
+    public static final String LEGACY_SAVE_FILE = "savedata/savefile.json";
+    private static final String MANIFEST_FILE = "manifest.json";
+    private static final String INDEX_FILE = "index.json";
+    private static final String MIGRATED_SUFFIX = ".migrated";
+    private static final int MANIFEST_VERSION = 1;
+    private static final Pattern SHARD_NAME = Pattern.compile("save_(\\d+)\\.(json|bin)");
+
+    private final File directory;
+    private final File legacyFile;
+    private final TreeSet<Integer> saveIds = new TreeSet<>();
+    private int nextSaveId = 1; // Never handed out twice, even if a save goes away
+    private final SaveIndex index;
+    private final SaveCodec codec;
+    private final SaveCodec[] otherCodecs;
+
+    /**
+     * Open the store in the default save directory
+     */
+    public ShardedSaveStore() {
+        this(new File(DEFAULT_DIRECTORY), new File(LEGACY_SAVE_FILE));
+    }
+
+    /**
+     * Open the store in the given directory with the save format from the
+     * animora.save.format system property
+     *
+     * @param directory  The directory holding the manifest and save shards
+     * @param legacyFile The old monolithic save file to migrate from
+     */
+    public ShardedSaveStore(File directory, File legacyFile) {
+        this(directory, legacyFile, SaveCodec.fromSystemProperty());
+    }
+
+    /**
+     * Open the store in the given directory, migrating the legacy save file if
+     * no manifest exists yet
+     *
+     * @param directory  The directory holding the manifest and save shards
+     * @param legacyFile The old monolithic save file to migrate from
+     * @param codec      The format to write save shards in
+     */
+    public ShardedSaveStore(File directory, File legacyFile, SaveCodec codec) {
+        this.directory = directory;
+        this.legacyFile = legacyFile;
+        this.codec = codec;
+        this.otherCodecs = codec instanceof BinarySaveCodec
+                ? new SaveCodec[] { new JsonSaveCodec() }
+                : new SaveCodec[] { new BinarySaveCodec() };
+        this.directory.mkdirs();
+
+        if (getManifestFile().exists()) {
+            loadManifest();
+        } else if (legacyFile.exists()) {
+            migrateLegacySaveFile();
+        } else {
+            // New install, or the manifest was lost: rebuild it from the shards
+            recoverManifest();
+        }
+
+        index = new SaveIndex(new File(directory, INDEX_FILE));
+        if (!index.exists()) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Read a single save from its shard
+     *
+     * @param saveId The save id to read
+     * @return The save object, or null if no such save exists
+     */
+    @Override
+    public synchronized JSONObject readSave(int saveId) {
+        SaveCodec shardCodec = codec;
+        File shard = getShardFile(saveId, codec);
+        for (int i = 0; !shard.exists() && i < otherCodecs.length; i++) {
+            // Written before the deployment switched save formats
+            shardCodec = otherCodecs[i];
+            shard = getShardFile(saveId, shardCodec);
+        }
+        if (!shard.exists()) {
+            return readLegacySave(saveId);
+        }
+
+        try {
+            return shardCodec.decode(Files.readAllBytes(shard.toPath()));
+        } catch (Exception e) {
+            System.err.println("Failed to read save " + saveId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write a single save to its shard, registering its id in the manifest if
+     * it is new
+     *
+     * @param save The save object, must contain a save_id
+     * @throws IOException if the shard or manifest could not be written
+     */
+    @Override
+    public synchronized void writeSave(JSONObject save) throws IOException {
+        Object id = save.get("save_id");
+        if (!(id instanceof Number)) {
+            throw new IllegalArgumentException("Save object does not contain a numeric 'save_id'.");
+        }
+        writeSave(((Number) id).intValue(), codec.encode(save), SaveSummary.fromSave(save));
+    }
+
+    /**
+     * Write a save that was already encoded with this store's codec to its
+     * shard
+     *
+     * @param saveId  The save id
+     * @param content The encoded save
+     * @param summary The header of the save for the save index
+     * @throws IOException if the shard or manifest could not be written
+     */
+    @Override
+    public synchronized void writeSave(int saveId, byte[] content, SaveSummary summary) throws IOException {
+        writeAtomically(getShardFile(saveId, codec), content);
+        for (SaveCodec other : otherCodecs) {
+            getShardFile(saveId, other).delete();
+        }
+
+        boolean newId = saveIds.add(saveId);
+        if (saveId >= nextSaveId) {
+            nextSaveId = saveId + 1;
+            newId = true;
+        }
+        if (newId) {
+            writeManifest();
+        }
+        index.update(summary);
+    }
+
+    /**
+     * Get the ids of all saves, in ascending order
+     *
+     * @return The list of save ids
+     */
+    @Override
+    public synchronized List<Integer> getSaveIds() {
+        return new ArrayList<>(saveIds);
+    }
+
+    /**
+     * Get the header of every save from the save index, without reading any
+     * save shard
+     *
+     * @return The list of save headers, ordered by save id
+     */
+    @Override
+    public List<SaveSummary> getSaveSummaries() {
+        return index.getSummaries();
+    }
+
+    /**
+     * Get the highest save id in the manifest
+     *
+     * @return The highest save id, or 0 if there are no saves
+     */
+    @Override
+    public synchronized int getHighestSaveId() {
+        return saveIds.isEmpty() ? 0 : saveIds.last();
+    }
+
+    /**
+     * Hand out a new save id from the counter in the manifest
+     *
+     * @return The new save id
+     * @throws IOException if the manifest could not be written
+     */
+    @Override
+    public synchronized int allocateSaveId() throws IOException {
+        int saveId = nextSaveId++;
+        writeManifest();
+        return saveId;
+    }
+
+    /**
+     * Get the codec save shards are written with
+     *
+     * @return The save codec
+     */
+    @Override
+    public SaveCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Get the directory holding the manifest and save shards
+     *
+     * @return The save directory
+     */
+    @Override
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Migrate the old single-file format into shards
+     *
+     * Every save in the legacy file is written to its own shard, the manifest
+     * is written last, and the legacy file is renamed so the migration only
+     * runs once. If there is no legacy file an empty manifest is created.
+     */
+    private void migrateLegacySaveFile() {
+        if (legacyFile.exists()) {
+            // Stream the saves one at a time instead of parsing the whole file
+            try (FileReader reader = new FileReader(legacyFile)) {
+                SaveStreamReader saves = new SaveStreamReader(reader);
+                JSONObject save;
+                while ((save = saves.nextSave()) != null) {
+                    int saveId = ((Number) save.get("save_id")).intValue();
+                    writeAtomically(getShardFile(saveId, codec), codec.encode(save));
+                    saveIds.add(saveId);
+                    nextSaveId = Math.max(nextSaveId, saveId + 1);
+                }
+                System.out.println("Migrated " + saveIds.size() + " saves from " + legacyFile.getPath());
+            } catch (Exception e) {
+                // Leave the legacy file in place so the migration can be retried
+                System.err.println("Failed to migrate legacy save file: " + e.getMessage());
+                return;
+            }
+        }
+
+        try {
+            writeManifest();
+        } catch (IOException e) {
+            System.err.println("Failed to write save manifest: " + e.getMessage());
+            return;
+        }
+
+        if (legacyFile.exists()
+                && !legacyFile.renameTo(new File(legacyFile.getPath() + MIGRATED_SUFFIX))) {
+            System.err.println("Could not rename legacy save file: " + legacyFile.getPath());
+        }
+    }
+
+    /**
+     * Build the save index from the save shards, used once when the index
+     * file does not exist yet
+     */
+    private void rebuildIndex() {
+        List<SaveSummary> summaries = new ArrayList<>();
+        for (int saveId : saveIds) {
+            JSONObject save = readSave(saveId);
+            if (save != null) {
+                summaries.add(SaveSummary.fromSave(save));
+            }
+        }
+
+        try {
+            index.rebuild(summaries);
+        } catch (IOException e) {
+            System.err.println("Failed to write save index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Seek a save in the legacy save file, used while a failed migration has
+     * left the legacy file in place
+     *
+     * @param saveId The save id to read
+     * @return The save object, or null if there is no legacy file or no such save
+     */
+    private JSONObject readLegacySave(int saveId) {
+        if (!legacyFile.exists()) {
+            return null;
+        }
+
+        try (FileReader reader = new FileReader(legacyFile)) {
+            return SaveStreamReader.findSave(reader, saveId);
+        } catch (Exception e) {
+            System.err.println("Failed to read save " + saveId + " from legacy save file: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Load the list of save ids and the save id counter from the manifest,
+     * falling back to the shard files if the manifest cannot be read
+     */
+    private void loadManifest() {
+        JSONParser parser = new JSONParser();
+        try (FileReader reader = new FileReader(getManifestFile())) {
+            JSONObject manifest = (JSONObject) parser.parse(reader);
+            JSONArray ids = (JSONArray) manifest.get("save_ids");
+            if (ids != null) {
+                for (Object id : ids) {
+                    saveIds.add(((Number) id).intValue());
+                }
+            }
+            Object next = manifest.get("next_save_id");
+            if (next instanceof Number) {
+                nextSaveId = ((Number) next).intValue();
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to read save manifest: " + e.getMessage());
+            recoverManifest();
+        }
+
+        // Older manifests have no counter, and a counter must never reuse an id
+        if (!saveIds.isEmpty() && nextSaveId <= saveIds.last()) {
+            nextSaveId = saveIds.last() + 1;
+        }
+    }
+
+    /**
+     * Rebuild the manifest from the save shards in the directory
+     */
+    private void recoverManifest() {
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                Matcher matcher = SHARD_NAME.matcher(name);
+                if (matcher.matches()) {
+                    saveIds.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        nextSaveId = saveIds.isEmpty() ? 1 : saveIds.last() + 1;
+
+        try {
+            writeManifest();
+            System.out.println("Recovered save manifest with " + saveIds.size() + " saves");
+        } catch (IOException e) {
+            System.err.println("Failed to write save manifest: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the manifest with the current list of save ids
+     *
+     * @throws IOException if the manifest could not be written
+     */
+    @SuppressWarnings("unchecked")
+    private void writeManifest() throws IOException {
+        JSONObject manifest = new JSONObject();
+        JSONArray ids = new JSONArray();
+        ids.addAll(saveIds);
+        manifest.put("version", MANIFEST_VERSION);
+        manifest.put("next_save_id", nextSaveId);
+        manifest.put("save_ids", ids);
+        writeAtomically(getManifestFile(), manifest.toJSONString());
+    }
+
+    /**
+     * Write the content to a temporary file and move it over the target, so a
+     * crash mid-write never leaves a half written save behind
+     *
+     * @param target  The file to replace
+     * @param content The new content
+     * @throws IOException if the file could not be written
+     */
+    static void writeAtomically(File target, String content) throws IOException {
+        writeAtomically(target, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write the bytes to a temporary file and move it over the target
+     *
+     * @param target  The file to replace
+     * @param content The new content
+     * @throws IOException if the file could not be written
+     */
+    static void writeAtomically(File target, byte[] content) throws IOException {
+        File temp = new File(target.getPath() + ".tmp");
+        Files.write(temp.toPath(), content);
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private File getShardFile(int saveId, SaveCodec shardCodec) {
+        return new File(directory, "save_" + saveId + shardCodec.getFileExtension());
+    }
+
+    private File getManifestFile() {
+        return new File(directory, MANIFEST_FILE);
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * SimulationLoop advances a pet's stat decay in fixed one second steps.
+ *
+ * The caller feeds it wall-clock time through advance, from a single
+ * Timeline in the game or directly from a test. The time is scaled by the
+ * time scale and added to an accumulator, and one step is run for every
+ * whole second in it. On each step every stat whose decay interval divides
+ * the step number goes down by one, so a stat with a 30 second interval
+ * decays on steps 30, 60, 90 and so on, no matter how the time was fed in.
+ *
+ * A step that decays at least one stat sends a single event to the listener,
+ * with the bits of the stats that changed, so the listener records and checks
+ * the pet once per step instead of once per stat. The stats due in a step are
+ * lowered in one atomic update of the pet's packed stats, and the event
+ * carries the stats that update produced, so a change made on another thread
+ * at the same time cannot slip in between the decay and the checks.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class SimulationLoop {
+    public static final double TIMESTEP = 1.0; // Seconds of game time per step
+    public static final String TIME_SCALE_PROPERTY = "animora.simulation.speed";
+
+    private static final int[] STATS = { Pet.HUNGER, Pet.FUN, Pet.SLEEP, Pet.GROOMING };
+
+    private final Pet pet;
+    private final int[] decayIntervals = new int[STATS.length]; // Steps between decays, in STATS order
+    private final Listener listener;
+
+    private long step = 0;
+    private double accumulator = 0; // Game time not yet run as a step
+    private double timeScale = 1.0;
+    private boolean paused = false;
+
+    /**
+     * Receives one event for every step that decayed a stat
+     */
+    public interface Listener {
+        /**
+         * @param step         The number of the step, counted from 1
+         * @param changedStats The bits of the stats that went down, 0 if every
+         *                     stat due to decay was already at 0
+         * @param stats        The packed stats right after the decay
+         */
+        void onStep(long step, int changedStats, int stats);
+    }
+
+    /**
+     * @param pet      The pet whose stats decay
+     * @param species  The species with the decay intervals
+     * @param listener The listener for steps that decay a stat
+     */
+    public SimulationLoop(Pet pet, Species species, Listener listener) {
+        this.pet = pet;
+        this.listener = listener;
+        for (int i = 0; i < STATS.length; i++) {
+            decayIntervals[i] = Math.max(1, species.getDecayInterval(STATS[i]));
+        }
+    }
+
+    /**
+     * Run the steps that fit in the given wall-clock time
+     *
+     * @param seconds Wall-clock seconds since the last call
+     * @return The number of steps run
+     */
+    public int advance(double seconds) {
+        if (paused || seconds <= 0) {
+            return 0;
+        }
+        accumulator += seconds * timeScale;
+        int steps = 0;
+        while (accumulator >= TIMESTEP) {
+            accumulator -= TIMESTEP;
+            step();
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Run one step, decaying every stat that is due
+     */
+    public void step() {
+        step++;
+        int dueStats = 0;
+        for (int i = 0; i < STATS.length; i++) {
+            if (step % decayIntervals[i] == 0) {
+                dueStats |= STATS[i];
+            }
+        }
+        if (dueStats == 0) {
+            return;
+        }
+        // Lower every due stat in one step, and work out what changed from the old and new values
+        int oldStats = pet.decayStats(dueStats);
+        int newStats = Pet.decay(oldStats, dueStats);
+        int changedStats = 0;
+        for (int stat : STATS) {
+            if (Pet.stat(oldStats, stat) != Pet.stat(newStats, stat)) {
+                changedStats |= stat;
+            }
+        }
+        listener.onStep(step, changedStats, newStats);
+    }
+
+    /**
+     * Continue counting steps from the given step without running the ones in
+     * between, e.g. after OfflineProgress applied the decay for that time
+     *
+     * @param step The step to continue from
+     */
+    public void skipTo(long step) {
+        this.step = step;
+    }
+
+    /**
+     * Stop running steps until resume is called, time passed to advance in
+     * the meantime is dropped
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * @param timeScale Game seconds per wall-clock second, e.g. 2 for double
+     *                  speed
+     */
+    public void setTimeScale(double timeScale) {
+        if (timeScale <= 0) {
+            throw new IllegalArgumentException("Time scale must be positive");
+        }
+        this.timeScale = timeScale;
+    }
+
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    /**
+     * @return The number of steps run so far
+     */
+    public long getStep() {
+        return step;
+    }
+}
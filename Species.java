@@ -0,0 +1,115 @@
+import java.util.Map;
+
+/**
+ * Species describes one kind of pet as loaded from the species descriptor:
+ * how fast its stats decay, what it eats, which sprites it uses and the
+ * compiled effect of every item on it.
+ *
+ * Item effects are kept in an array indexed by item id, so looking up the
+ * effect of an item is a single array access.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Species {
+    private static final String SPRITE_PATH = "Assets/Sprites/";
+
+    private final int id;
+    private final String type;
+    private final String food;
+    private final int hungerDecay, funDecay, sleepDecay, groomingDecay; // Seconds between each decay
+    private final int playFun; // Fun gained each time the pet plays
+    private final Map<String, String> sprites;
+    private final ItemEffect[] itemEffects;
+
+    /**
+     * @param id            The dense id of the species in the registry
+     * @param type          The pet type, e.g. "dragon"
+     * @param food          What the pet eats, for messages
+     * @param decay         Seconds between decays of hunger, fun, sleep and
+     *                      grooming, in that order
+     * @param playFun       Fun gained each time the pet plays
+     * @param sprites       Sprite file names keyed by sprite action
+     * @param itemEffects   Effects indexed by item id
+     */
+    Species(int id, String type, String food, int[] decay, int playFun, Map<String, String> sprites,
+            ItemEffect[] itemEffects) {
+        this.id = id;
+        this.type = type;
+        this.food = food;
+        this.hungerDecay = decay[0];
+        this.funDecay = decay[1];
+        this.sleepDecay = decay[2];
+        this.groomingDecay = decay[3];
+        this.playFun = playFun;
+        this.sprites = sprites;
+        this.itemEffects = itemEffects;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getFood() {
+        return food;
+    }
+
+    /**
+     * Get the seconds between decays of a stat
+     *
+     * @param stat One of Pet.HUNGER, Pet.FUN, Pet.SLEEP or Pet.GROOMING
+     * @return The decay interval in seconds
+     */
+    public int getDecayInterval(int stat) {
+        switch (stat) {
+            case Pet.HUNGER:
+                return hungerDecay;
+            case Pet.FUN:
+                return funDecay;
+            case Pet.SLEEP:
+                return sleepDecay;
+            case Pet.GROOMING:
+                return groomingDecay;
+            default:
+                throw new IllegalArgumentException("Unknown stat: " + stat);
+        }
+    }
+
+    /**
+     * Get the fun the pet gains each time it plays
+     *
+     * @return The fun gained, 1 unless the descriptor sets "playFun"
+     */
+    public int getPlayFun() {
+        return playFun;
+    }
+
+    /**
+     * Get the path of one of the species' sprites
+     *
+     * @param action The sprite action, e.g. "idle", "eat" or "sleep"
+     * @return The sprite path, which defaults to type_action.gif
+     */
+    public String getSprite(String action) {
+        String sprite = sprites.get(action);
+        return SPRITE_PATH + (sprite != null ? sprite : type + "_" + action + ".gif");
+    }
+
+    /**
+     * Get the effect of an item on this species
+     *
+     * @param itemId The item id from ItemRegistry
+     * @return The effect, or ItemEffect.NONE for an item with no effect
+     */
+    public ItemEffect getItemEffect(int itemId) {
+        if (itemId < 0 || itemId >= itemEffects.length) {
+            return ItemEffect.NONE;
+        }
+        return itemEffects[itemId];
+    }
+}
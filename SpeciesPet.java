@@ -0,0 +1,393 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SpeciesPet implements the Pet interface for any species in the species
+ * descriptor. It holds the pet's name and its hunger, fun, sleep and grooming
+ * stats, each kept in the range 0-10, and tracks which stats changed since the
+ * last save.
+ * 
+ * The four stats and their dirty bits are packed into one int, 4 bits each,
+ * and every change is a compare-and-set on that int. Stats can be changed from
+ * several threads at once without locks, e.g. decay steps on a background
+ * scheduler and item use on the FX thread, and getStats always returns values
+ * that belong together.
+ * 
+ * Everything that differs between species, such as decay rates, item effects,
+ * food and sprites, comes from the pet's Species, so a new species needs no
+ * new class.
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class SpeciesPet implements Pet {
+
+    /** The species of the pet. */
+    private final Species species;
+
+    /** The name of the pet. */
+    private volatile String name;
+
+    private static final int MAX_STAT = 10;
+    private static final int STAT_MASK = 0xFFFF; // The stat values, without the dirty bits
+
+    // Hunger, fun, sleep and grooming in 4 bits each, then the dirty bits
+    private final AtomicInteger stats = new AtomicInteger(Pet.packStats(MAX_STAT, MAX_STAT, MAX_STAT, MAX_STAT));
+
+    /**
+     * Constructor to initialize a pet of a species with a name.
+     * 
+     * @param species the species of the pet
+     * @param name    the name of the pet
+     */
+    public SpeciesPet(Species species, String name) {
+        this.species = species;
+        this.name = name;
+    }
+
+    /**
+     * Gets the species of the pet, with its decay rates and item effects.
+     * 
+     * @return the species of the pet
+     */
+    public Species getSpecies() {
+        return species;
+    }
+
+    // Getters (from the Pet interface)
+
+    /**
+     * Gets the name of the pet.
+     * 
+     * @return the name of the pet
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the grooming level of the pet.
+     * 
+     * @return the grooming level (0-10)
+     */
+    @Override
+    public int getGrooming() {
+        return Pet.stat(stats.get(), GROOMING);
+    }
+
+    /**
+     * Gets the sleep level of the pet.
+     * 
+     * @return the sleep level (0-10)
+     */
+    @Override
+    public int getSleep() {
+        return Pet.stat(stats.get(), SLEEP);
+    }
+
+    /**
+     * Gets the type of the pet, e.g. "dragon".
+     * 
+     * @return the type of the pet
+     */
+    @Override
+    public String getType() {
+        return species.getType();
+    }
+
+    /**
+     * Gets the hunger level of the pet.
+     * 
+     * @return the hunger level (0-10)
+     */
+    @Override
+    public int getHunger() {
+        return Pet.stat(stats.get(), HUNGER);
+    }
+
+    /**
+     * Gets the fun level of the pet.
+     * 
+     * @return the fun level (0-10)
+     */
+    @Override
+    public int getFun() {
+        return Pet.stat(stats.get(), FUN);
+    }
+
+    // Setters (from the Pet interface)
+
+    /**
+     * Sets the name of the pet.
+     * 
+     * @param name the new name of the pet
+     */
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Sets the grooming level of the pet.
+     * 
+     * @param grooming the new grooming level (0-10)
+     */
+    @Override
+    public void setGrooming(int grooming) {
+        set(GROOMING, grooming);
+    }
+
+    /**
+     * Sets the sleep level of the pet.
+     * 
+     * @param sleep the new sleep level (0-10)
+     */
+    @Override
+    public void setSleep(int sleep) {
+        set(SLEEP, sleep);
+    }
+
+    /**
+     * Sets the fun level of the pet.
+     * 
+     * @param fun the new fun level (0-10)
+     */
+    @Override
+    public void setFun(int fun) {
+        set(FUN, fun);
+    }
+
+    /**
+     * Sets the hunger level of the pet.
+     * 
+     * @param hunger the new hunger level (0-10)
+     */
+    @Override
+    public void setHunger(int hunger) {
+        set(HUNGER, hunger);
+    }
+
+    // Behavior methods (from the Pet interface)
+
+    /**
+     * Makes the pet eat to increase its hunger level.
+     */
+    @Override
+    public void eat() {
+        System.out.println(name + " is eating " + species.getFood() + ".");
+        if (Pet.stat(add(HUNGER, 1), HUNGER) == MAX_STAT) {
+            System.err.println(name + " is full!");
+        }
+    }
+
+    /**
+     * Makes the pet play to increase its fun level.
+     */
+    @Override
+    public void play() {
+        // Check and change the three stats in one step, so decay in between cannot slip past the check
+        int old = stats.getAndUpdate(current -> Pet.stat(current, HUNGER) <= 0 || Pet.stat(current, SLEEP) <= 0
+                ? current
+                : with(with(with(current, FUN, Pet.stat(current, FUN) + species.getPlayFun()), HUNGER, Pet.stat(current, HUNGER) - 1),
+                        SLEEP, Pet.stat(current, SLEEP) - 1));
+        if (Pet.stat(old, HUNGER) <= 0 || Pet.stat(old, SLEEP) <= 0) {
+            System.err.println(name + " is too hungry or tired to play! Feed or let it sleep first.");
+        } else {
+            System.out.println(name + " is playing and having fun!");
+            if (Pet.stat(old, FUN) == MAX_STAT) {
+                System.err.println(name + " is already fully entertained!");
+            }
+        }
+    }
+
+    /**
+     * Makes the pet sleep to regain its energy.
+     */
+    @Override
+    public void sleep() {
+        System.out.println(name + " is sleeping to regain energy.");
+        if (Pet.stat(add(SLEEP, 1), SLEEP) == MAX_STAT) {
+            System.err.println(name + " is already fully rested!");
+        }
+    }
+
+    /**
+     * Makes the pet groom to increase its grooming level.
+     */
+    @Override
+    public void groom() {
+        System.out.println(name + " is being groomed.");
+        if (Pet.stat(add(GROOMING, 1), GROOMING) == MAX_STAT) {
+            System.err.println(name + " is already perfectly groomed!");
+        }
+    }
+
+    // Methods to increase each stat
+
+    /**
+     * Increases the grooming level by a specified amount.
+     * 
+     * @param n the amount to increase
+     */
+    public void increaseGrooming(int n) {
+        add(GROOMING, n);
+    }
+
+    /**
+     * Increases the hunger level by a specified amount.
+     * 
+     * @param n the amount to increase
+     */
+    public void increaseHunger(int n) {
+        add(HUNGER, n);
+    }
+
+    /**
+     * Increases the fun level by a specified amount.
+     * 
+     * @param n the amount to increase
+     */
+    public void increaseFun(int n) {
+        add(FUN, n);
+    }
+
+    /**
+     * Increases the sleep level by a specified amount.
+     * 
+     * @param n the amount to increase
+     */
+    public void increaseSleep(int n) {
+        add(SLEEP, n);
+    }
+
+    // Methods to decrease each stat
+
+    /**
+     * Decreases the grooming level by a specified amount.
+     * 
+     * @param n the amount to decrease
+     */
+    public void decreaseGrooming(int n) {
+        add(GROOMING, -n);
+    }
+
+    /**
+     * Decreases the hunger level by a specified amount.
+     * 
+     * @param n the amount to decrease
+     */
+    public void decreaseHunger(int n) {
+        add(HUNGER, -n);
+    }
+
+    /**
+     * Decreases the fun level by a specified amount.
+     * 
+     * @param n the amount to decrease
+     */
+    public void decreaseFun(int n) {
+        add(FUN, -n);
+    }
+
+    /**
+     * Decreases the sleep level by a specified amount.
+     * 
+     * @param n the amount to decrease
+     */
+    public void decreaseSleep(int n) {
+        add(SLEEP, -n);
+    }
+
+    // Dirty stat tracking (from the Pet interface)
+
+    /**
+     * Gets the stats of the pet that changed since the last save.
+     * 
+     * @return the bits of the changed stats
+     */
+    @Override
+    public int getDirtyStats() {
+        return Pet.dirtyStats(stats.get());
+    }
+
+    /**
+     * Marks every stat of the pet as saved.
+     */
+    @Override
+    public void clearDirtyStats() {
+        stats.getAndUpdate(current -> current & STAT_MASK);
+    }
+
+    /**
+     * Gets every stat of the pet and the dirty bits in one read.
+     * 
+     * @return the packed stats, unpacked with Pet.stat and Pet.dirtyStats
+     */
+    @Override
+    public int getStats() {
+        return stats.get();
+    }
+
+    /**
+     * Gets every stat of the pet and the dirty bits, and marks the stats as
+     * saved, in one atomic step.
+     * 
+     * @return the packed stats before they were marked as saved
+     */
+    @Override
+    public int takeStats() {
+        return stats.getAndUpdate(current -> current & STAT_MASK);
+    }
+
+    /**
+     * Lowers each of the given stats by one, unless it is already 0, in one
+     * atomic step.
+     * 
+     * @param statBits the bits of the stats to lower
+     * @return the packed stats before the change
+     */
+    @Override
+    public int decayStats(int statBits) {
+        return stats.getAndUpdate(current -> Pet.decay(current, statBits));
+    }
+
+    /**
+     * Sets a stat, clamped to 0-10.
+     * 
+     * @param stat  the bit of the stat
+     * @param value the new value
+     */
+    private void set(int stat, int value) {
+        stats.getAndUpdate(current -> with(current, stat, value));
+    }
+
+    /**
+     * Adds to a stat, clamped to 0-10.
+     * 
+     * @param stat  the bit of the stat
+     * @param delta the amount to add, negative to decrease
+     * @return the packed stats before the change
+     */
+    private int add(int stat, int delta) {
+        return stats.getAndUpdate(current -> with(current, stat, Pet.stat(current, stat) + delta));
+    }
+
+    /**
+     * Replaces one stat in a packed word, marking it as changed if its value
+     * differs.
+     * 
+     * @param current the packed stats
+     * @param stat    the bit of the stat
+     * @param value   the new value, clamped to 0-10
+     * @return the new packed stats
+     */
+    private static int with(int current, int stat, int value) {
+        value = Math.max(0, Math.min(MAX_STAT, value));
+        if (Pet.stat(current, stat) == value) {
+            return current;
+        }
+        int shift = Integer.numberOfTrailingZeros(stat) << 2;
+        return (current & ~(0xF << shift)) | value << shift | stat << 16;
+    }
+}
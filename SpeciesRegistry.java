@@ -0,0 +1,211 @@
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SpeciesRegistry loads the pet species from the species descriptor,
+ * Assets/Data/species.json, and gives each one a dense id.
+ *
+ * The descriptor has two parts. "items" holds the effect of each item
+ * category (food, bath, fun, sleep, gift) that applies to every species, and
+ * "species" lists the species with their decay intervals, the fun they gain
+ * from playing ("playFun", 1 if not set), sprites and the effects they
+ * override. An override can name a whole category, e.g. "food",
+ * or a single item, e.g. "food3", and only replaces the fields it lists.
+ *
+ * When the registry is loaded the overrides are folded into one effect table
+ * per species, indexed by item id, so the game never looks at the descriptor
+ * again. Adding a species only needs a new entry in the descriptor and its
+ * sprites.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SpeciesRegistry {
+    private static final String DESCRIPTOR_FILE = "Assets/Data/species.json";
+    private static final int DEFAULT_DECAY = 35; // Seconds, for a species that does not set its own
+    private static final int DEFAULT_PLAY_FUN = 1; // For a species that does not set its own
+    private static final String[] STATS = { "hunger", "fun", "sleep", "grooming" };
+
+    private static final List<Species> species = new ArrayList<>();
+    private static final Map<String, Species> speciesByType = new HashMap<>(); // Keyed by the lower case type
+
+    static {
+        load();
+    }
+
+    private SpeciesRegistry() {
+    }
+
+    /**
+     * Check if a pet type is defined in the descriptor
+     *
+     * @param type The pet type
+     * @return true if the species exists
+     */
+    public static boolean contains(String type) {
+        return type != null && speciesByType.containsKey(type.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Get a species by pet type
+     *
+     * @param type The pet type, e.g. "dragon"
+     * @return The species, or a species with default decay and no item effects
+     *         if the type is not in the descriptor
+     */
+    public static Species get(String type) {
+        Species found = speciesByType.get(type.toLowerCase(Locale.ROOT));
+        if (found == null) {
+            System.err.println("Unknown species " + type + ", using defaults");
+            found = new Species(-1, type.toLowerCase(Locale.ROOT), "food",
+                    new int[] { DEFAULT_DECAY, DEFAULT_DECAY, DEFAULT_DECAY, DEFAULT_DECAY }, DEFAULT_PLAY_FUN,
+                    Collections.emptyMap(), new ItemEffect[0]);
+        }
+        return found;
+    }
+
+    /**
+     * Get a species by id
+     *
+     * @param id The species id
+     * @return The species
+     */
+    public static Species get(int id) {
+        return species.get(id);
+    }
+
+    /**
+     * @return The number of species, every species id is below this
+     */
+    public static int getSpeciesCount() {
+        return species.size();
+    }
+
+    /**
+     * Create a pet of any species in the descriptor
+     *
+     * @param type The pet type
+     * @param name The pet's name
+     * @return The new pet with full stats
+     * @throws IllegalArgumentException if the type is not in the descriptor
+     */
+    public static Pet createPet(String type, String name) {
+        if (!contains(type)) {
+            throw new IllegalArgumentException("Invalid pet type: " + type);
+        }
+        return new SpeciesPet(get(type), name);
+    }
+
+    /**
+     * Read the descriptor and compile the effect table of every species
+     */
+    private static void load() {
+        try (FileReader reader = new FileReader(DESCRIPTOR_FILE)) {
+            JSONObject descriptor = (JSONObject) new JSONParser().parse(reader);
+            JSONObject items = (JSONObject) descriptor.get("items");
+            JSONArray speciesArray = (JSONArray) descriptor.get("species");
+
+            for (Object obj : speciesArray) {
+                JSONObject entry = (JSONObject) obj;
+                String type = ((String) entry.get("type")).toLowerCase(Locale.ROOT);
+                Species compiled = compile(species.size(), type, entry, items);
+                species.add(compiled);
+                speciesByType.put(type, compiled);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to load species from " + DESCRIPTOR_FILE + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Build a species from its descriptor entry
+     *
+     * @param id    The species id
+     * @param type  The lower case pet type
+     * @param entry The species entry of the descriptor
+     * @param items The item effects shared by every species
+     * @return The species with its effect table
+     */
+    @SuppressWarnings("unchecked")
+    private static Species compile(int id, String type, JSONObject entry, JSONObject items) {
+        JSONObject decay = (JSONObject) entry.get("decay");
+        int[] decayIntervals = new int[STATS.length];
+        for (int i = 0; i < STATS.length; i++) {
+            Object interval = decay == null ? null : decay.get(STATS[i]);
+            decayIntervals[i] = interval != null ? ((Number) interval).intValue() : DEFAULT_DECAY;
+        }
+
+        Map<String, String> sprites = new HashMap<>();
+        JSONObject spriteNames = (JSONObject) entry.get("sprites");
+        if (spriteNames != null) {
+            sprites.putAll(spriteNames);
+        }
+
+        JSONObject overrides = (JSONObject) entry.get("effects");
+        ItemEffect[] itemEffects = new ItemEffect[ItemRegistry.getCatalogSize()];
+        for (int itemId = 0; itemId < itemEffects.length; itemId++) {
+            String itemName = ItemRegistry.getName(itemId).toLowerCase(Locale.ROOT);
+            String category = itemName.replaceAll("\\d+$", "");
+
+            // Most specific first: the species' item, the species' category, the
+            // shared item, then the shared category
+            List<JSONObject> layers = new ArrayList<>();
+            addLayer(layers, overrides, itemName);
+            addLayer(layers, overrides, category);
+            addLayer(layers, items, itemName);
+            addLayer(layers, items, category);
+
+            itemEffects[itemId] = layers.isEmpty() ? ItemEffect.NONE
+                    : new ItemEffect(
+                            stringField(layers, "action", category),
+                            stringField(layers, "sprite", category),
+                            intField(layers, "duration", 5),
+                            intField(layers, "hunger", 0),
+                            intField(layers, "fun", 0),
+                            intField(layers, "sleep", 0),
+                            intField(layers, "grooming", 0),
+                            intField(layers, "level", 0));
+        }
+
+        String food = (String) entry.get("food");
+        Object playFun = entry.get("playFun");
+        return new Species(id, type, food != null ? food : "food", decayIntervals,
+                playFun != null ? ((Number) playFun).intValue() : DEFAULT_PLAY_FUN, sprites, itemEffects);
+    }
+
+    private static void addLayer(List<JSONObject> layers, JSONObject effects, String key) {
+        if (effects != null && effects.get(key) instanceof JSONObject) {
+            layers.add((JSONObject) effects.get(key));
+        }
+    }
+
+    private static int intField(List<JSONObject> layers, String field, int defaultValue) {
+        for (JSONObject layer : layers) {
+            Object value = layer.get(field);
+            if (value != null) {
+                return ((Number) value).intValue();
+            }
+        }
+        return defaultValue;
+    }
+
+    private static String stringField(List<JSONObject> layers, String field, String defaultValue) {
+        for (JSONObject layer : layers) {
+            Object value = layer.get(field);
+            if (value != null) {
+                return (String) value;
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,291 @@
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import org.w3c.dom.Node;
+
+/**
+ * SpriteAnimation is a pet sprite decoded once into a list of frames, each
+ * with the time it stays on screen.
+ *
+ * An animated GIF is read frame by frame with ImageIO and each frame is drawn
+ * onto a canvas the size of the GIF, following the GIF's disposal rules, so
+ * every frame is a complete picture. The frames are scaled down to fit
+ * MAX_FRAME_SIZE, the size the gameplay screen shows sprites at. Other images
+ * become a single frame.
+ *
+ * Decoded animations are cached by path, so feeding the pet a second time
+ * decodes nothing, and AssetPreloader decodes every species' sprites while
+ * the main menu is showing. SpriteAnimator plays them. Frames take 4 bytes a
+ * pixel, so one species' five animations take 15-23 MB and the three species
+ * about 60 MB. The cache keeps at most MAX_CACHED_PIXELS, which fits every
+ * species today so the preloaded sprites stay ready. Once more species
+ * outgrow it, the least recently used animations are dropped and decoded
+ * again the next time they are shown.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SpriteAnimation {
+    public static final int MAX_FRAME_SIZE = 300; // Sprites are shown in a 300x300 box
+    private static final int DEFAULT_DELAY = 100; // Milliseconds, for frames with no or a tiny delay, as browsers do
+
+    private static final long MAX_CACHED_PIXELS = 16L * 1024 * 1024; // About 64 MB of frames
+
+    // Least recently used first, guarded by itself
+    private static final LinkedHashMap<String, CompletableFuture<SpriteAnimation>> cache = new LinkedHashMap<>(16,
+            0.75f, true);
+    private static long cachedPixels = 0;
+
+    private final String path;
+    private final Image[] frames;
+    private final long[] frameEnds; // Time each frame ends at, from the start of the animation, in milliseconds
+    private final long pixels; // Of every frame together
+
+    private SpriteAnimation(String path, Image[] frames, long[] frameEnds) {
+        this.path = path;
+        this.frames = frames;
+        this.frameEnds = frameEnds;
+        long total = 0;
+        for (Image frame : frames) {
+            total += (long) frame.getWidth() * (long) frame.getHeight();
+        }
+        this.pixels = total;
+    }
+
+    /**
+     * Get a decoded animation, decoding it only if it is not cached yet
+     *
+     * @param path The sprite path, e.g. "Assets/Sprites/dragon_eat.gif"
+     * @return The animation
+     * @throws IllegalArgumentException if the sprite could not be read
+     */
+    public static SpriteAnimation get(String path) {
+        CompletableFuture<SpriteAnimation> animation;
+        boolean decode = false;
+        synchronized (cache) {
+            animation = cache.get(path);
+            if (animation == null) {
+                animation = new CompletableFuture<>();
+                cache.put(path, animation);
+                decode = true;
+            }
+        }
+
+        if (decode) {
+            try {
+                SpriteAnimation decoded = decode(path);
+                synchronized (cache) {
+                    if (cache.get(path) == animation) {
+                        cachedPixels += decoded.pixels;
+                        trimCache(path);
+                    }
+                }
+                animation.complete(decoded);
+            } catch (IOException | RuntimeException e) {
+                synchronized (cache) {
+                    cache.remove(path); // A later call tries again
+                }
+                IllegalArgumentException failure = new IllegalArgumentException(
+                        "Failed to decode sprite " + path + ": " + e.getMessage(), e);
+                animation.completeExceptionally(failure);
+                throw failure;
+            }
+        }
+        try {
+            return animation.join();
+        } catch (CompletionException e) {
+            throw (IllegalArgumentException) e.getCause();
+        }
+    }
+
+    /**
+     * Get the frame to show at a time, looping the animation
+     *
+     * @param elapsedMillis The time since the animation started
+     * @return The frame index
+     */
+    public int frameAt(long elapsedMillis) {
+        long time = elapsedMillis % getDurationMillis();
+        int index = Arrays.binarySearch(frameEnds, time);
+        // A frame ending exactly now gives way to the next one
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    public Image getFrame(int index) {
+        return frames[index];
+    }
+
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    /**
+     * @return The length of one loop of the animation in milliseconds
+     */
+    public long getDurationMillis() {
+        return frameEnds[frameEnds.length - 1];
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Drop the least recently used animations until the cache fits in the
+     * budget, keeping the one just decoded and those still being decoded
+     *
+     * @param keep The path of the animation just decoded
+     */
+    private static void trimCache(String keep) {
+        Iterator<Map.Entry<String, CompletableFuture<SpriteAnimation>>> oldest = cache.entrySet().iterator();
+        while (cachedPixels > MAX_CACHED_PIXELS && oldest.hasNext()) {
+            Map.Entry<String, CompletableFuture<SpriteAnimation>> entry = oldest.next();
+            CompletableFuture<SpriteAnimation> animation = entry.getValue();
+            if (entry.getKey().equals(keep) || !animation.isDone()) {
+                continue;
+            }
+            oldest.remove();
+            cachedPixels -= animation.join().pixels;
+        }
+    }
+
+    private static SpriteAnimation decode(String path) throws IOException {
+        URL url = SpriteAnimation.class.getResource("/" + path);
+        if (url == null) {
+            throw new IOException("Sprite not found");
+        }
+        List<BufferedImage> pictures = new ArrayList<>();
+        List<Integer> delays = new ArrayList<>();
+        try (InputStream in = url.openStream(); ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                throw new IOException("Unknown image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, false);
+                if ("gif".equalsIgnoreCase(reader.getFormatName())) {
+                    readGif(reader, pictures, delays);
+                } else {
+                    pictures.add(scale(reader.read(0)));
+                    delays.add(DEFAULT_DELAY);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        Image[] frames = new Image[pictures.size()];
+        long[] frameEnds = new long[pictures.size()];
+        long time = 0;
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = toFxImage(pictures.get(i));
+            time += delays.get(i);
+            frameEnds[i] = time;
+        }
+        return new SpriteAnimation(path, frames, frameEnds);
+    }
+
+    /**
+     * Draw every frame of a GIF onto a canvas, following each frame's disposal
+     * method, and keep a scaled copy of the canvas after each one
+     */
+    private static void readGif(ImageReader reader, List<BufferedImage> pictures, List<Integer> delays)
+            throws IOException {
+        int count = reader.getNumImages(true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        IIOMetadataNode screen = child(reader.getStreamMetadata().getAsTree("javax_imageio_gif_stream_1.0"),
+                "LogicalScreenDescriptor");
+        if (screen != null) {
+            width = Math.max(width, Integer.parseInt(screen.getAttribute("logicalScreenWidth")));
+            height = Math.max(height, Integer.parseInt(screen.getAttribute("logicalScreenHeight")));
+        }
+
+        BufferedImage canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = canvas.createGraphics();
+        try {
+            for (int i = 0; i < count; i++) {
+                BufferedImage frame = reader.read(i);
+                Node metadata = reader.getImageMetadata(i).getAsTree("javax_imageio_gif_image_1.0");
+                IIOMetadataNode descriptor = child(metadata, "ImageDescriptor");
+                IIOMetadataNode control = child(metadata, "GraphicControlExtension");
+                int x = descriptor != null ? Integer.parseInt(descriptor.getAttribute("imageLeftPosition")) : 0;
+                int y = descriptor != null ? Integer.parseInt(descriptor.getAttribute("imageTopPosition")) : 0;
+                String disposal = control != null ? control.getAttribute("disposalMethod") : "none";
+                int delay = control != null ? Integer.parseInt(control.getAttribute("delayTime")) * 10 : 0;
+
+                int[] previous = "restoreToPrevious".equals(disposal)
+                        ? canvas.getRGB(0, 0, width, height, null, 0, width)
+                        : null;
+                graphics.drawImage(frame, x, y, null);
+                pictures.add(scale(canvas));
+                delays.add(delay <= 10 ? DEFAULT_DELAY : delay);
+
+                // Get the canvas ready for the next frame
+                if ("restoreToBackgroundColor".equals(disposal)) {
+                    graphics.setComposite(AlphaComposite.Clear);
+                    graphics.fillRect(x, y, frame.getWidth(), frame.getHeight());
+                    graphics.setComposite(AlphaComposite.SrcOver);
+                } else if (previous != null) {
+                    canvas.setRGB(0, 0, width, height, previous, 0, width);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    /**
+     * Copy a picture, scaled down to fit MAX_FRAME_SIZE if it is larger
+     */
+    private static BufferedImage scale(BufferedImage picture) {
+        double factor = Math.min(1.0, (double) MAX_FRAME_SIZE / Math.max(picture.getWidth(), picture.getHeight()));
+        int width = Math.max(1, (int) Math.round(picture.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(picture.getHeight() * factor));
+        BufferedImage copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = copy.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(picture, 0, 0, width, height, null);
+        graphics.dispose();
+        return copy;
+    }
+
+    private static Image toFxImage(BufferedImage picture) {
+        int width = picture.getWidth();
+        int height = picture.getHeight();
+        int[] argb = picture.getRGB(0, 0, width, height, null, 0, width);
+        WritableImage image = new WritableImage(width, height);
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
+        return image;
+    }
+
+    private static IIOMetadataNode child(Node parent, String name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName())) {
+                return (IIOMetadataNode) node;
+            }
+        }
+        return null;
+    }
+}
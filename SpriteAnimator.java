@@ -0,0 +1,163 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.image.ImageView;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SpriteAnimator plays SpriteAnimations on image views from one
+ * AnimationTimer, which runs once per rendered frame while any view is
+ * animating and stops when none is.
+ *
+ * Playing an animation on a view replaces whatever it was playing, so one
+ * view can show the idle sprite, then an action, then the idle sprite again
+ * without being removed from the scene. A view's image is only set when its
+ * frame changes. Pausing holds every view on its frame, and resuming carries
+ * on from there.
+ *
+ * Only used from the FX thread.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 1.0
+ */
+public class SpriteAnimator {
+    private static SpriteAnimator instance;
+
+    private final Map<ImageView, Playing> playing = new HashMap<>();
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            tick(now);
+        }
+    };
+    private boolean running = false;
+    private boolean paused = false;
+    private long lastTickNanos = -1;
+    private boolean resumed = false; // Shift the animations by the paused time on the next tick
+
+    /**
+     * An animation playing on a view
+     */
+    private static final class Playing {
+        final SpriteAnimation animation;
+        long startNanos = -1; // Set on the first tick
+        int frame = 0;
+
+        Playing(SpriteAnimation animation) {
+            this.animation = animation;
+        }
+    }
+
+    /**
+     * Get the shared animator, creating it on first use
+     *
+     * @return The shared animator
+     */
+    public static synchronized SpriteAnimator getInstance() {
+        if (instance == null) {
+            instance = new SpriteAnimator();
+        }
+        return instance;
+    }
+
+    /**
+     * Show an animation on a view from its first frame, looping until another
+     * animation is played on the view or it is stopped
+     *
+     * @param view      The view to show the animation on
+     * @param animation The animation
+     */
+    public void play(ImageView view, SpriteAnimation animation) {
+        view.setImage(animation.getFrame(0));
+        if (animation.getFrameCount() == 1) {
+            stop(view); // Nothing to animate
+            return;
+        }
+        playing.put(view, new Playing(animation));
+        updateTimer();
+    }
+
+    /**
+     * Stop animating a view, leaving the current frame on it
+     *
+     * @param view The view
+     */
+    public void stop(ImageView view) {
+        playing.remove(view);
+        updateTimer();
+    }
+
+    /**
+     * Stop animating every view, e.g. when a screen is left
+     */
+    public void stopAll() {
+        playing.clear();
+        paused = false;
+        updateTimer();
+    }
+
+    /**
+     * Hold every view on its current frame, e.g. while another screen is
+     * shown over the game
+     */
+    public void pause() {
+        paused = true;
+        updateTimer();
+    }
+
+    /**
+     * Carry on animating the views from the frames they were paused on
+     */
+    public void resume() {
+        if (paused) {
+            paused = false;
+            resumed = true;
+            updateTimer();
+        }
+    }
+
+    /**
+     * @return The number of views being animated
+     */
+    public int getPlayingCount() {
+        return playing.size();
+    }
+
+    /**
+     * Move every view to the frame for the current time
+     *
+     * @param now The time of the rendered frame, in nanoseconds
+     */
+    void tick(long now) {
+        long pausedNanos = resumed && lastTickNanos >= 0 ? now - lastTickNanos : 0;
+        resumed = false;
+        lastTickNanos = now;
+        for (Map.Entry<ImageView, Playing> entry : playing.entrySet()) {
+            Playing current = entry.getValue();
+            if (current.startNanos >= 0) {
+                current.startNanos += pausedNanos;
+            } else {
+                current.startNanos = now;
+            }
+            int frame = current.animation.frameAt((now - current.startNanos) / 1_000_000);
+            if (frame != current.frame) {
+                current.frame = frame;
+                entry.getKey().setImage(current.animation.getFrame(frame));
+            }
+        }
+    }
+
+    /**
+     * Run the timer only while a view is animating and the animator is not
+     * paused
+     */
+    private void updateTimer() {
+        boolean run = !paused && !playing.isEmpty();
+        if (run && !running) {
+            timer.start();
+        } else if (!run && running) {
+            timer.stop();
+        }
+        running = run;
+    }
+}
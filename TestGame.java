@@ -1,5 +1,8 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import javafx.application.Platform;
 import javafx.scene.Scene;
@@ -11,12 +14,13 @@ import javafx.scene.input.KeyEvent;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 
-import java.io.FileReader;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 public class TestGame {
 
@@ -78,48 +82,136 @@ public class TestGame {
         // Wait for the save to complete
         waitForFxEvents();
 
-        // Check that the save data is saved correctly
-        JSONParser parser = new JSONParser();
-        try {
-            JSONObject saveData = (JSONObject) parser.parse(new FileReader("savedata/savefile.json"));
-            JSONArray saves = (JSONArray) saveData.get("saves");
-
-            // Find the save object with save_id = 1
-            JSONObject saveObject = null;
-            for (Object obj : saves) {
-                JSONObject save = (JSONObject) obj;
-                if (((Long) save.get("save_id")).intValue() == 1) {
-                    saveObject = save;
-                    break;
-                }
+        // Check that the save data is saved correctly to save_id = 1 in the save store
+        JSONObject saveObject = SaveStore.open().readSave(1);
+
+        assertNotNull("Save data should be present", saveObject);
+
+        // Verify the saved data
+        JSONObject petData = (JSONObject) saveObject.get("pet");
+        assertEquals("Pet name should be saved correctly", gamePlayScreen.getMyPet().getName(), petData.get("name"));
+        assertEquals("Pet type should be saved correctly", gamePlayScreen.getMyPet().getType(), petData.get("type"));
+
+        JSONObject petStats = (JSONObject) petData.get("stats");
+        assertEquals("Pet hunger should be saved correctly", gamePlayScreen.getMyPet().getHunger(), ((Long) petStats.get("hunger")).intValue());
+        assertEquals("Pet fun should be saved correctly", gamePlayScreen.getMyPet().getFun(), ((Long) petStats.get("fun")).intValue());
+        assertEquals("Pet sleep should be saved correctly", gamePlayScreen.getMyPet().getSleep(), ((Long) petStats.get("sleep")).intValue());
+        assertEquals("Pet grooming should be saved correctly", gamePlayScreen.getMyPet().getGrooming(), ((Long) petStats.get("grooming")).intValue());
+
+        JSONObject gameProgress = (JSONObject) saveObject.get("gameProgress");
+        assertEquals("Player level should be saved correctly", gamePlayScreen.getPlayerLevel(), ((Long) gameProgress.get("level")).intValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSimulationRunsWithoutJavaFX() {
+        // Build the game logic straight from a save object, no screen involved
+        JSONObject saveObject = new JSONObject();
+        saveObject.put("save_id", 1L);
+        saveObject.put("username", "Player1");
+
+        JSONObject petData = new JSONObject();
+        petData.put("name", "Smaug");
+        petData.put("type", "dragon");
+        JSONObject petStats = new JSONObject();
+        petStats.put("hunger", 10L);
+        petStats.put("fun", 10L);
+        petStats.put("sleep", 10L);
+        petStats.put("grooming", 10L);
+        petData.put("stats", petStats);
+        saveObject.put("pet", petData);
+
+        JSONArray inventory = new JSONArray();
+        JSONObject food = new JSONObject();
+        food.put("name", "food1");
+        food.put("quantity", 1L);
+        inventory.add(food);
+        saveObject.put("inventory", inventory);
+
+        JSONObject gameProgress = new JSONObject();
+        gameProgress.put("level", 5L);
+        saveObject.put("game_progress", gameProgress);
+
+        PetSimulation simulation = PetSimulation.fromSave(saveObject, System.currentTimeMillis());
+
+        // A dragon's hunger decays every 15 seconds, a minute runs at once
+        simulation.advance(60);
+        assertEquals("Hunger should decay 4 times in a minute", 6, simulation.getPet().getHunger());
+
+        // Food raises a dragon's hunger by 1 and the level by 1
+        assertNotNull("Food should be used", simulation.useItem(ItemRegistry.getId("food1")));
+        assertEquals("Pet hunger should increase", 7, simulation.getPet().getHunger());
+        assertEquals("Player level should increase", 6, simulation.getPlayerLevel());
+        assertNull("There should be no food left", simulation.useItem(ItemRegistry.getId("food1")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNewGameLoadsThroughRepository() {
+        // Create a save the way the main menu does, then pick a pet the way the choose pet screen does
+        int saveId = NewGame.addNewSave("Tester");
+        assertTrue("New save should be created", saveId > 0);
+        SaveRepository.getInstance().editSave(saveId, save -> {
+            JSONObject pet = (JSONObject) save.get("pet");
+            pet.put("name", "Spark");
+            pet.put("type", "phoenix");
+        });
+
+        PetSimulation simulation = PetSimulation.fromSave(SaveRepository.getInstance().getSave(saveId),
+                System.currentTimeMillis());
+        assertEquals("Pet name should be loaded", "Spark", simulation.getPet().getName());
+        assertEquals("Pet hunger should start full", 10, simulation.getPet().getHunger());
+        assertEquals("Pet fun should start full", 10, simulation.getPet().getFun());
+        assertEquals("Pet sleep should start full", 10, simulation.getPet().getSleep());
+        assertEquals("Pet grooming should start full", 10, simulation.getPet().getGrooming());
+        assertEquals("Player level should start at 1", 1, simulation.getPlayerLevel());
+        assertEquals("Starting food should be loaded", 1,
+                simulation.getInventory().getQuantity(ItemRegistry.getId("food1")));
+        assertFalse("A new pet should not be game over", simulation.isGameOver());
+    }
+
+    @Test
+    public void testStatWarningsFireOnlyOnCrossing() {
+        Pet pet = new Dragon("Smaug");
+        pet.setHunger(5);
+        PetSimulation simulation = new PetSimulation("Player1", pet, SpeciesRegistry.get("dragon"), new Inventory(), 1);
+
+        int[] lowWarnings = new int[1];
+        simulation.setListener(new PetSimulation.Listener() {
+            @Override
+            public void onDecay(int changedStats) {
             }
 
-            assertNotNull("Save data should be present", saveObject);
+            @Override
+            public void onStatLow(int stat, int value) {
+                lowWarnings[0]++;
+            }
 
-            // Verify the saved data
-            JSONObject petData = (JSONObject) saveObject.get("pet");
-            assertEquals("Pet name should be saved correctly", gamePlayScreen.getMyPet().getName(), petData.get("name"));
-            assertEquals("Pet type should be saved correctly", gamePlayScreen.getMyPet().getType(), petData.get("type"));
+            @Override
+            public void onStatEmpty(int stat) {
+            }
 
-            JSONObject petStats = (JSONObject) petData.get("stats");
-            assertEquals("Pet hunger should be saved correctly", gamePlayScreen.getMyPet().getHunger(), ((Long) petStats.get("hunger")).intValue());
-            assertEquals("Pet fun should be saved correctly", gamePlayScreen.getMyPet().getFun(), ((Long) petStats.get("fun")).intValue());
-            assertEquals("Pet sleep should be saved correctly", gamePlayScreen.getMyPet().getSleep(), ((Long) petStats.get("sleep")).intValue());
-            assertEquals("Pet grooming should be saved correctly", gamePlayScreen.getMyPet().getGrooming(), ((Long) petStats.get("grooming")).intValue());
+            @Override
+            public void onGameOver() {
+            }
+        });
 
-            JSONObject gameProgress = (JSONObject) saveObject.get("gameProgress");
-            assertEquals("Player level should be saved correctly", gamePlayScreen.getPlayerLevel(), ((Long) gameProgress.get("level")).intValue());
+        // A dragon's hunger decays every 15 seconds, 5 -> 3 enters the low range once
+        simulation.advance(30);
+        assertEquals("Hunger should warn when it becomes low", 1, lowWarnings[0]);
+        simulation.advance(15);
+        assertEquals("Hunger should not warn again while it stays low", 1, lowWarnings[0]);
 
-        } catch (IOException | ParseException e) {
-            fail("Failed to read save data: " + e.getMessage());
-        }
+        // Back above the threshold and down again warns again
+        simulation.care(Pet.HUNGER);
+        simulation.care(Pet.HUNGER);
+        simulation.advance(15);
+        assertEquals("Hunger should warn again after recovering", 2, lowWarnings[0]);
     }
 
     @Test
     public void testLoadSaveData() {
         // Create a sample save data JSON object
-        JSONObject saveData = new JSONObject();
-        JSONArray saves = new JSONArray();
         JSONObject saveObject = new JSONObject();
         saveObject.put("save_id", 1);
         saveObject.put("username", "Player1");
@@ -141,13 +233,9 @@ public class TestGame {
         gameProgress.put("level", 5);
         saveObject.put("gameProgress", gameProgress);
 
-        saves.add(saveObject);
-        saveData.put("saves", saves);
-
-        // Write the sample save data to the save file
-        try (FileWriter file = new FileWriter("savedata/savefile.json")) {
-            file.write(saveData.toJSONString());
-            file.flush();
+        // Write the sample save data to the save store
+        try {
+            SaveRepository.getInstance().addSave(saveObject);
         } catch (IOException e) {
             fail("Failed to write save data: " + e.getMessage());
         }
@@ -168,4 +256,297 @@ public class TestGame {
         assertEquals("Pet grooming should be loaded correctly", 10, gamePlayScreen.getMyPet().getGrooming());
         assertEquals("Player level should be loaded correctly", 5, gamePlayScreen.getPlayerLevel());
     }
+
+    @Test
+    public void testJournalFoldsAndCompacts() throws IOException {
+        SaveStore saveStore = createTempStore(new JsonSaveCodec());
+        saveStore.writeSave(createSave(1));
+        SaveJournal journal = new SaveJournal(saveStore);
+
+        journal.append(1, new SaveJournal.Entry("feed", 1000).put("hunger", 8).put("level", 21).item("food1", 0));
+        JSONObject save = journal.readSave(1);
+        assertEquals("Hunger should be folded in", 8L, statOf(save, "hunger"));
+        assertEquals("Level should be folded in", 21L, levelOf(save));
+        assertEquals("Item quantity should be folded in", 0L, quantityOf(save, "food1"));
+
+        journal.compact(1);
+        assertFalse("Compacting should drop the journal", journalFile(saveStore, 1).exists());
+        save = saveStore.readSave(1);
+        assertEquals("Hunger should be in the snapshot", 8L, statOf(save, "hunger"));
+        assertEquals("Level should be in the snapshot", 21L, levelOf(save));
+    }
+
+    @Test
+    public void testJournalDropsTornTail() throws IOException {
+        SaveStore saveStore = createTempStore(new JsonSaveCodec());
+        saveStore.writeSave(createSave(1));
+        SaveJournal journal = new SaveJournal(saveStore);
+
+        // A crash partway through writing "level=124"
+        journal.append(1, new SaveJournal.Entry("feed", 1000).put("level", 7));
+        try (FileWriter writer = new FileWriter(journalFile(saveStore, 1), true)) {
+            writer.write("2000 feed level=12");
+        }
+        assertEquals("A torn record should not be applied", 7L, levelOf(journal.readSave(1)));
+
+        // The next record starts on its own line instead of completing the torn one
+        journal.append(1, new SaveJournal.Entry("feed", 3000).put("hunger", 3));
+        JSONObject save = journal.readSave(1);
+        assertEquals("The record after the crash should be applied", 3L, statOf(save, "hunger"));
+        assertEquals("The torn record should stay dropped", 7L, levelOf(save));
+    }
+
+    @Test
+    public void testJournalKeepsOddItemNames() throws IOException {
+        SaveStore saveStore = createTempStore(new JsonSaveCodec());
+        saveStore.writeSave(createSave(1));
+        SaveJournal journal = new SaveJournal(saveStore);
+
+        journal.append(1, new SaveJournal.Entry("purchase", 1000).item("golden apple", 2).item("a=b%c", 4));
+        journal.append(1, new SaveJournal.Entry("decay", 2000).put("hunger", 9));
+        JSONObject save = journal.readSave(1);
+        assertEquals("A name with a space should round trip", 2L, quantityOf(save, "golden apple"));
+        assertEquals("A name with = and % should round trip", 4L, quantityOf(save, "a=b%c"));
+        assertEquals("Later records should be applied", 9L, statOf(save, "hunger"));
+
+        try {
+            new SaveJournal.Entry("feed").put("hunger level", 1);
+            fail("A field with a space should be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testJournalWithBadRecordIsNotCompacted() throws IOException {
+        SaveStore saveStore = createTempStore(new JsonSaveCodec());
+        saveStore.writeSave(createSave(1));
+        SaveJournal journal = new SaveJournal(saveStore);
+
+        try (FileWriter writer = new FileWriter(journalFile(saveStore, 1), true)) {
+            writer.write("1000 feed hunger=oops\n");
+        }
+        journal.append(1, new SaveJournal.Entry("feed", 2000).put("level", 9));
+        assertEquals("Records after a bad one should be applied", 9L, levelOf(journal.readSave(1)));
+
+        journal.compact(1);
+        assertTrue("A journal with a bad record should be kept", journalFile(saveStore, 1).exists());
+        assertEquals("The snapshot should be left alone", 5L, levelOf(saveStore.readSave(1)));
+    }
+
+    @Test
+    public void testBinaryCodecRoundTripsCatalogSave() throws IOException {
+        BinarySaveCodec codec = new BinarySaveCodec();
+        JSONObject save = createSave(1);
+        assertEquals("A save of catalog items should round trip", save, codec.decode(codec.encode(save)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBinaryCodecRoundTripsUnusualSaves() throws IOException {
+        BinarySaveCodec codec = new BinarySaveCodec();
+        JSONObject save = createSave(7);
+        save.put("username", "Zoë 🐉");
+        ((JSONObject) save.get("pet")).put("name", "火龙");
+        ((JSONObject) save.get("game_progress")).put("level", Long.MAX_VALUE);
+
+        JSONArray inventory = (JSONArray) save.get("inventory");
+        JSONObject mysteryBox = new JSONObject();
+        mysteryBox.put("name", "Mystery Box");
+        mysteryBox.put("quantity", 3L);
+        inventory.add(mysteryBox);
+        assertEquals("Non-ASCII names, a large level and non-catalog items should round trip", save,
+                codec.decode(codec.encode(save)));
+
+        // Keys outside the binary layout are kept in the trailing JSON
+        JSONObject settings = new JSONObject();
+        settings.put("volume", 50L);
+        save.put("settings", settings);
+        ((JSONObject) save.get("pet")).put("color", "red");
+        assertEquals("Extra top-level and pet keys should round trip", save, codec.decode(codec.encode(save)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBinaryCodecLowerCasesCatalogNames() throws IOException {
+        BinarySaveCodec codec = new BinarySaveCodec();
+        JSONObject save = createSave(1);
+        JSONObject food = (JSONObject) ((JSONArray) save.get("inventory")).get(0);
+        food.put("name", "Food3");
+
+        JSONObject loaded = codec.decode(codec.encode(save));
+        assertEquals("A catalog item should come back under its catalog name", 1L, quantityOf(loaded, "food3"));
+        assertNull("The original spelling should not be kept", quantityOf(loaded, "Food3"));
+    }
+
+    @Test
+    public void testMappedStoreRoundTripsRecord() throws IOException {
+        SaveStore saveStore = createTempMappedStore(createTempStore(new JsonSaveCodec()));
+        JSONObject save = createSave(3);
+        saveStore.writeSave(save);
+
+        assertEquals("The record should read back as written", save, saveStore.readSave(3));
+        assertEquals("The save id should be listed", Arrays.asList(3), saveStore.getSaveIds());
+        SaveSummary summary = saveStore.getSaveSummaries().get(0);
+        assertEquals("The summary should hold the pet name", "Smaug", summary.getPetName());
+        assertEquals("The summary should hold the level", 5, summary.getLevel());
+        assertEquals("New ids should follow the highest save", 4, saveStore.allocateSaveId());
+    }
+
+    @Test
+    public void testMappedStoreDetectsCorruptRecord() throws IOException {
+        File file = Files.createTempDirectory("animora-test").resolve("saves.dat").toFile();
+        SaveStore saveStore = new MappedSaveStore(file, createTempStore(new JsonSaveCodec()));
+        saveStore.writeSave(createSave(1));
+
+        // Flip a byte of the username in the first record, after the 64 byte file header
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(64 + 30);
+            int value = raw.read();
+            raw.seek(64 + 30);
+            raw.write(value ^ 0xFF);
+        }
+        SaveStore reopened = new MappedSaveStore(file, null);
+        assertNull("A record failing its CRC should not be read", reopened.readSave(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMappedStoreCutsNamesAtCharacterBoundary() throws IOException {
+        SaveStore saveStore = createTempMappedStore(createTempStore(new JsonSaveCodec()));
+        JSONObject save = createSave(1);
+        save.put("username", "éééééééééééééé€x"); // 28 + 3 + 1 bytes
+        ((JSONObject) save.get("pet")).put("name", "😀😀😀😀😀😀😀😀"); // 8 x 4 bytes
+        saveStore.writeSave(save);
+
+        JSONObject loaded = saveStore.readSave(1);
+        assertEquals("The username should be cut to 31 bytes", "éééééééééééééé€", loaded.get("username"));
+        assertEquals("The pet name should be cut before a split character", "😀😀😀😀😀😀😀",
+                ((JSONObject) loaded.get("pet")).get("name"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMappedStoreDropsWhatDoesNotFit() throws IOException {
+        SaveStore saveStore = createTempMappedStore(createTempStore(new JsonSaveCodec()));
+        JSONObject save = createSave(1);
+        JSONObject mysteryBox = new JSONObject();
+        mysteryBox.put("name", "Mystery Box");
+        mysteryBox.put("quantity", 3L);
+        ((JSONArray) save.get("inventory")).add(mysteryBox);
+        save.put("settings", new JSONObject());
+        ((JSONObject) save.get("pet")).put("color", "red");
+        saveStore.writeSave(save);
+
+        // The fixed record only has room for what the game itself stores
+        JSONObject loaded = saveStore.readSave(1);
+        assertNull("Items outside the catalog should be dropped", quantityOf(loaded, "Mystery Box"));
+        assertEquals("Catalog items should be kept", 1L, quantityOf(loaded, "food1"));
+        assertFalse("Extra top-level keys should be dropped", loaded.containsKey("settings"));
+        assertFalse("Extra pet keys should be dropped", ((JSONObject) loaded.get("pet")).containsKey("color"));
+    }
+
+    @Test
+    public void testMappedStoreImportsShardedSaves() throws IOException {
+        SaveStore shardedStore = createTempStore(new JsonSaveCodec());
+        shardedStore.writeSave(createSave(1));
+        shardedStore.writeSave(createSave(2));
+
+        SaveStore saveStore = createTempMappedStore(shardedStore);
+        assertEquals("Every sharded save should be copied", Arrays.asList(1, 2), saveStore.getSaveIds());
+        assertEquals("A copied save should read back the same", createSave(2), saveStore.readSave(2));
+        assertEquals("New ids should follow the copied saves", 3, saveStore.allocateSaveId());
+    }
+
+    @Test
+    public void testPlayFunComesFromSpecies() {
+        Pet phoenix = new Phoenix("Fawkes");
+        Pet dragon = new Dragon("Smaug");
+        phoenix.setFun(5);
+        dragon.setFun(5);
+
+        phoenix.play();
+        dragon.play();
+        assertEquals("A phoenix should gain 2 fun from playing", 7, phoenix.getFun());
+        assertEquals("A dragon should gain 1 fun from playing", 6, dragon.getFun());
+        assertEquals("Playing should still cost sleep", 9, phoenix.getSleep());
+    }
+
+    /**
+     * Open a save store in a new temporary directory
+     * 
+     * @param codec The format to write saves in
+     * @return The empty save store
+     */
+    private static SaveStore createTempStore(SaveCodec codec) throws IOException {
+        File directory = Files.createTempDirectory("animora-test").toFile();
+        return new ShardedSaveStore(directory, new File(directory, "saves.json"), codec);
+    }
+
+    /**
+     * Open a memory-mapped save store in a new file
+     * 
+     * @param source The store to copy saves from
+     * @return The save store
+     */
+    private static SaveStore createTempMappedStore(SaveStore source) throws IOException {
+        return new MappedSaveStore(Files.createTempDirectory("animora-test").resolve("saves.dat").toFile(), source);
+    }
+
+    private static File journalFile(SaveStore saveStore, int saveId) {
+        return new File(saveStore.getDirectory(), "save_" + saveId + ".journal");
+    }
+
+    /**
+     * Build a save with a full dragon, one food and level 5
+     * 
+     * @param saveId The save id
+     * @return The save object
+     */
+    @SuppressWarnings("unchecked")
+    private static JSONObject createSave(long saveId) {
+        JSONObject saveObject = new JSONObject();
+        saveObject.put("save_id", saveId);
+        saveObject.put("username", "Player1");
+
+        JSONObject petData = new JSONObject();
+        petData.put("name", "Smaug");
+        petData.put("type", "dragon");
+        JSONObject petStats = new JSONObject();
+        petStats.put("hunger", 10L);
+        petStats.put("fun", 10L);
+        petStats.put("sleep", 10L);
+        petStats.put("grooming", 10L);
+        petData.put("stats", petStats);
+        saveObject.put("pet", petData);
+
+        JSONArray inventory = new JSONArray();
+        JSONObject food = new JSONObject();
+        food.put("name", "food1");
+        food.put("quantity", 1L);
+        inventory.add(food);
+        saveObject.put("inventory", inventory);
+
+        JSONObject gameProgress = new JSONObject();
+        gameProgress.put("level", 5L);
+        gameProgress.put("last_played", "2024-12-04T11:57:36");
+        saveObject.put("game_progress", gameProgress);
+        return saveObject;
+    }
+
+    private static Object statOf(JSONObject save, String stat) {
+        return ((JSONObject) ((JSONObject) save.get("pet")).get("stats")).get(stat);
+    }
+
+    private static Object levelOf(JSONObject save) {
+        return ((JSONObject) save.get("game_progress")).get("level");
+    }
+
+    private static Object quantityOf(JSONObject save, String itemName) {
+        for (Object item : (JSONArray) save.get("inventory")) {
+            if (itemName.equals(((JSONObject) item).get("name"))) {
+                return ((JSONObject) item).get("quantity");
+            }
+        }
+        return null;
+    }
 }